@@ -0,0 +1,204 @@
+package com.catalog.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.oauth2.core.AbstractOAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+/**
+ * In-memory {@link OAuth2AuthorizationService} with bounded size.
+ * <p>
+ * Each authorization is kept until the last of its tokens expires, or for
+ * {@code timeToLive} when it has none. Expired entries are never returned and
+ * are dropped by {@link #removeExpired()}. Entries are kept in save order, which
+ * follows expiry order since every login gets the same token lifetime, so when
+ * {@code maxSize} is reached the oldest entries are evicted from the head in
+ * constant time. Token lookups use a value index instead of scanning every
+ * authorization.
+ */
+public class ExpiringOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+	private final Map<String, Entry> authorizations = new ConcurrentHashMap<>();
+	private final Map<String, String> tokenIndex = new ConcurrentHashMap<>();
+	// guarded by this; a re-saved authorization moves to the tail
+	private final LinkedHashSet<String> saveOrder = new LinkedHashSet<>();
+
+	private final Duration timeToLive;
+	private final int maxSize;
+	private final Clock clock;
+
+	public ExpiringOAuth2AuthorizationService(Duration timeToLive, int maxSize) {
+		this(timeToLive, maxSize, Clock.systemUTC());
+	}
+
+	public ExpiringOAuth2AuthorizationService(Duration timeToLive, int maxSize, Clock clock) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than zero");
+		Assert.notNull(clock, "clock cannot be null");
+		this.timeToLive = timeToLive;
+		this.maxSize = maxSize;
+		this.clock = clock;
+	}
+
+	@Override
+	public synchronized void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		Entry previous = authorizations.put(authorization.getId(), new Entry(authorization, expiresAt(authorization)));
+		if (previous != null) {
+			unindex(previous.authorization());
+			saveOrder.remove(authorization.getId());
+		}
+		saveOrder.add(authorization.getId());
+		index(authorization);
+
+		while (authorizations.size() > maxSize) {
+			delete(saveOrder.iterator().next());
+		}
+	}
+
+	@Override
+	public synchronized void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		delete(authorization.getId());
+	}
+
+	@Override
+	public OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return live(authorizations.get(id));
+	}
+
+	@Override
+	public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		String id = tokenIndex.get(token);
+		if (id == null) {
+			return null;
+		}
+		OAuth2Authorization authorization = live(authorizations.get(id));
+		return (authorization != null && hasToken(authorization, token, tokenType)) ? authorization : null;
+	}
+
+	/**
+	 * Drops every authorization whose tokens have all expired.
+	 *
+	 * @return number of authorizations removed
+	 */
+	public synchronized int removeExpired() {
+		Instant now = clock.instant();
+		int removed = 0;
+		for (Iterator<String> it = saveOrder.iterator(); it.hasNext();) {
+			String id = it.next();
+			Entry entry = authorizations.get(id);
+			if (!entry.expiresAt().isAfter(now)) {
+				it.remove();
+				authorizations.remove(id);
+				unindex(entry.authorization());
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	public int size() {
+		return authorizations.size();
+	}
+
+	private void delete(String id) {
+		Entry entry = authorizations.remove(id);
+		if (entry != null) {
+			saveOrder.remove(id);
+			unindex(entry.authorization());
+		}
+	}
+
+	private OAuth2Authorization live(Entry entry) {
+		return (entry != null && entry.expiresAt().isAfter(clock.instant())) ? entry.authorization() : null;
+	}
+
+	private void index(OAuth2Authorization authorization) {
+		for (String value : tokenValues(authorization)) {
+			tokenIndex.put(value, authorization.getId());
+		}
+	}
+
+	private void unindex(OAuth2Authorization authorization) {
+		for (String value : tokenValues(authorization)) {
+			tokenIndex.remove(value, authorization.getId());
+		}
+	}
+
+	private Instant expiresAt(OAuth2Authorization authorization) {
+		Instant result = null;
+		for (OAuth2Authorization.Token<?> token : tokens(authorization)) {
+			Instant tokenExpiresAt = token.getToken().getExpiresAt();
+			if (tokenExpiresAt != null && (result == null || tokenExpiresAt.isAfter(result))) {
+				result = tokenExpiresAt;
+			}
+		}
+		return (result != null) ? result : clock.instant().plus(timeToLive);
+	}
+
+	private static List<OAuth2Authorization.Token<?>> tokens(OAuth2Authorization authorization) {
+		List<OAuth2Authorization.Token<?>> result = new ArrayList<>();
+		addIfPresent(result, authorization.getToken(OAuth2AuthorizationCode.class));
+		addIfPresent(result, authorization.getAccessToken());
+		addIfPresent(result, authorization.getRefreshToken());
+		addIfPresent(result, authorization.getToken(OidcIdToken.class));
+		return result;
+	}
+
+	private static void addIfPresent(List<OAuth2Authorization.Token<?>> list, OAuth2Authorization.Token<?> token) {
+		if (token != null) {
+			list.add(token);
+		}
+	}
+
+	private static List<String> tokenValues(OAuth2Authorization authorization) {
+		List<String> result = new ArrayList<>();
+		String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+		if (state != null) {
+			result.add(state);
+		}
+		for (OAuth2Authorization.Token<?> token : tokens(authorization)) {
+			result.add(token.getToken().getTokenValue());
+		}
+		return result;
+	}
+
+	private static boolean hasToken(OAuth2Authorization authorization, String token, OAuth2TokenType tokenType) {
+		if (tokenType == null) {
+			return tokenValues(authorization).contains(token);
+		}
+		return switch (tokenType.getValue()) {
+			case OAuth2ParameterNames.STATE -> token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+			case OAuth2ParameterNames.CODE -> matches(authorization.getToken(OAuth2AuthorizationCode.class), token);
+			case OAuth2ParameterNames.ACCESS_TOKEN -> matches(authorization.getAccessToken(), token);
+			case OAuth2ParameterNames.REFRESH_TOKEN -> matches(authorization.getRefreshToken(), token);
+			case OidcParameterNames.ID_TOKEN -> matches(authorization.getToken(OidcIdToken.class), token);
+			default -> false;
+		};
+	}
+
+	private static boolean matches(OAuth2Authorization.Token<? extends AbstractOAuth2Token> authorizationToken, String token) {
+		return authorizationToken != null && authorizationToken.getToken().getTokenValue().equals(token);
+	}
+
+	private record Entry(OAuth2Authorization authorization, Instant expiresAt) {
+	}
+}
@@ -0,0 +1,155 @@
+package com.devsuperior.demo.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JwtSigningKeysTests {
+
+    @TempDir
+    private Path root;
+
+    private Path tempDirectory;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // the JUnit temp dir stands in for a persistent volume, another folder for java.io.tmpdir
+        tempDirectory = Files.createDirectories(root.resolve("tmp"));
+        directory = ownerOnlyDirectory(root.resolve("keys"));
+    }
+
+    @Test
+    public void loadShouldGenerateKeyFileWhenDirectoryIsEmpty() throws Exception {
+        JwtSigningKeys keys = JwtSigningKeys.load(directory, tempDirectory);
+
+        Assertions.assertTrue(Files.exists(directory.resolve(keys.getSigningKey().getKeyID() + ".pem")));
+        Assertions.assertEquals(1, keys.getJwkSet().getKeys().size());
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void loadShouldReuseExistingKeyWhenFileExists() {
+        JwtSigningKeys first = JwtSigningKeys.load(directory, tempDirectory);
+
+        JwtSigningKeys second = JwtSigningKeys.load(directory, tempDirectory);
+
+        Assertions.assertEquals(first.getSigningKey().getKeyID(), second.getSigningKey().getKeyID());
+        Assertions.assertEquals(first.getSigningKey().getModulus(), second.getSigningKey().getModulus());
+    }
+
+    @Test
+    public void loadShouldGiveEveryInstanceTheSameKeyWhenTheyStartTogether() throws Exception {
+        int instances = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+        try {
+            List<Callable<JwtSigningKeys>> loads = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                loads.add(() -> JwtSigningKeys.load(directory, tempDirectory));
+            }
+            List<Future<JwtSigningKeys>> results = executor.invokeAll(loads);
+
+            JwtSigningKeys first = results.get(0).get();
+            for (Future<JwtSigningKeys> result : results) {
+                Assertions.assertEquals(first.getSigningKey().getModulus(), result.get().getSigningKey().getModulus());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void loadShouldFailWhenDirectoryDoesNotExist() {
+        Assertions.assertThrows(IllegalStateException.class, () -> JwtSigningKeys.load(root.resolve("missing"), tempDirectory));
+    }
+
+    @Test
+    public void loadShouldFailWhenDirectoryIsInsideTempDirectory() throws Exception {
+        Path keyDir = ownerOnlyDirectory(tempDirectory.resolve("keys"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> JwtSigningKeys.load(keyDir, tempDirectory));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void loadShouldFailWhenDirectoryIsAccessibleByOthers() throws Exception {
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> JwtSigningKeys.load(directory, tempDirectory));
+    }
+
+    @Test
+    public void loadShouldSignWithNewestKeyAndVerifyTokensOfAllKeys() throws Exception {
+        JwtSigningKeys previous = createKey(directory, "20240101000000");
+        createKey(directory, "20250101000000");
+
+        JwtSigningKeys keys = JwtSigningKeys.load(directory, tempDirectory);
+
+        Assertions.assertEquals("20250101000000", keys.getSigningKey().getKeyID());
+        Assertions.assertEquals(2, keys.getJwkSet().getKeys().size());
+        Jwt jwt = keys.jwtDecoder().decode(encode(previous));
+        Assertions.assertEquals("maria@gmail.com", jwt.getSubject());
+    }
+
+    @Test
+    public void jwtDecoderShouldRejectTokenSignedByUnknownKey() {
+        JwtSigningKeys keys = JwtSigningKeys.load(directory, tempDirectory);
+        JwtSigningKeys otherKeys = JwtSigningKeys.inMemory();
+
+        Assertions.assertThrows(BadJwtException.class, () -> keys.jwtDecoder().decode(encode(otherKeys)));
+    }
+
+    private JwtSigningKeys createKey(Path keyDir, String kid) throws Exception {
+        Path workDir = ownerOnlyDirectory(root.resolve(kid));
+        JwtSigningKeys generated = JwtSigningKeys.load(workDir, tempDirectory);
+        Files.move(workDir.resolve(generated.getSigningKey().getKeyID() + ".pem"), workDir.resolve(kid + ".pem"));
+        Files.copy(workDir.resolve(kid + ".pem"), keyDir.resolve(kid + ".pem"));
+        return JwtSigningKeys.load(workDir, tempDirectory);
+    }
+
+    private static Path ownerOnlyDirectory(Path path) throws Exception {
+        Files.createDirectories(path);
+        if (!OS.WINDOWS.isCurrentOs()) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwx------"));
+        }
+        return path;
+    }
+
+    private static String encode(JwtSigningKeys keys) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("maria@gmail.com")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(60))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        return new NimbusJwtEncoder(keys.signingKeySource()).encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
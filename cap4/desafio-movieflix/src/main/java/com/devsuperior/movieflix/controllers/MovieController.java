@@ -4,14 +4,22 @@ import com.devsuperior.movieflix.dto.MovieCardDTO;
 import com.devsuperior.movieflix.dto.MovieDetailsDTO;
 import com.devsuperior.movieflix.dto.ReviewDTO;
 import com.devsuperior.movieflix.services.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -21,11 +29,65 @@ public class MovieController {
     @Autowired
     private MovieService movieService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * One page of reviews after the review {@code after}. The total is sent in
+     * {@code X-Total-Count} and, when the page is full, the next page in a
+     * {@code Link} header. Reviews cannot be edited, so the ids of a page
+     * identify its content and make its ETag; a request whose
+     * {@code If-None-Match} matches gets 304 without body. The ETag does not
+     * cover {@code X-Total-Count}: a client revalidating a page keeps the
+     * count it already has, even when reviews were added after that page.
+     */
     @GetMapping(value = "/{id}/reviews")
     @PreAuthorize("hasAnyRole('VISITOR','MEMBER')")
-    public ResponseEntity<List<ReviewDTO>> findByMovieId(@Valid @PathVariable Long id) {
-        List<ReviewDTO> reviewDTOS = movieService.findByMovieId(id);
-        return ResponseEntity.ok().body(reviewDTOS);
+    public ResponseEntity<List<ReviewDTO>> findByMovieId(
+            @Valid @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") Integer size
+    ) {
+        long count = movieService.countReviews(id);
+        List<ReviewDTO> reviewDTOS = movieService.findByMovieId(id, after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(reviewsETag(id, reviewDTOS))
+                .header("X-Total-Count", String.valueOf(count));
+        if (reviewDTOS.size() == movieService.reviewsPageSize(size)) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", reviewDTOS.get(reviewDTOS.size() - 1).getId())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(reviewDTOS);
+    }
+
+    /**
+     * Every review of the movie as NDJSON, read one page at a time.
+     */
+    @GetMapping(value = "/{id}/reviews/stream")
+    @PreAuthorize("hasAnyRole('VISITOR','MEMBER')")
+    public void streamByMovieId(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        movieService.countReviews(id);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        try {
+            movieService.streamByMovieId(id, review -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(review));
+                    writer.write('\n');
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
     }
 
     @GetMapping(value = "/{id}")
@@ -45,4 +107,17 @@ public class MovieController {
         return ResponseEntity.ok().body(dto);
     }
 
+    /**
+     * Review ids only grow and a page holds consecutive reviews of the movie
+     * in id order, so its first id, last id and size tell it apart from any
+     * other page of the movie.
+     */
+    private static String reviewsETag(Long movieId, List<ReviewDTO> reviews) {
+        if (reviews.isEmpty()) {
+            return "\"" + movieId + "-0\"";
+        }
+        return "\"" + movieId + "-" + reviews.size() + "-" + reviews.get(0).getId()
+                + "-" + reviews.get(reviews.size() - 1).getId() + "\"";
+    }
+
 }
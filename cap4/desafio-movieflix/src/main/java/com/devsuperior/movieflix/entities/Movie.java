@@ -14,9 +14,11 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import com.devsuperior.movieflix.projections.IdProjection;
+
 @Entity
 @Table(name = "tb_movie")
-public class Movie {
+public class Movie implements IdProjection<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +33,9 @@ public class Movie {
     @Column(columnDefinition = "TEXT")
     private String synopsis;
 
+    @Column(name = "review_count", columnDefinition = "INTEGER DEFAULT 0 NOT NULL", insertable = false, updatable = false)
+    private Integer reviewCount;
+
     @ManyToOne
     @JoinColumn(name = "genre_id")
     private Genre genre;
@@ -108,6 +113,14 @@ public class Movie {
         this.genre = genre;
     }
 
+    /**
+     * Number of reviews of the movie, kept up to date by {@code ReviewService}
+     * so it is read without counting them.
+     */
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
     public List<Review> getReviews() {
         return reviews;
     }
@@ -0,0 +1,6 @@
+package com.devsuperior.movieflix.projections;
+
+public interface IdProjection<E> {
+
+    E getId();
+}
@@ -1,7 +1,6 @@
 package com.devsuperior.movieflix.projections;
 
-public interface MovieProjection {
+public interface MovieProjection extends IdProjection<Long> {
 
-    Long getId();
     String getTitle();
 }
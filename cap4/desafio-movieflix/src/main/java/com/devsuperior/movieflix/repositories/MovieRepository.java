@@ -6,6 +6,7 @@ import com.devsuperior.movieflix.projections.MovieProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
@@ -29,7 +30,14 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     Page<MovieProjection> searchMovie(Long genreId, Pageable pageable);
 
     @Query("SELECT obj FROM Movie obj JOIN FETCH obj.genre " +
-            "WHERE obj.id IN :movieIds ORDER BY obj.title")
+            "WHERE obj.id IN :movieIds")
     List<Movie> searchMovieWithGenre(List<Long> movieIds);
 
+    @Query("SELECT obj.reviewCount FROM Movie obj WHERE obj.id = :id")
+    Optional<Integer> findReviewCount(Long id);
+
+    @Modifying
+    @Query("UPDATE Movie obj SET obj.reviewCount = obj.reviewCount + 1 WHERE obj.id = :id")
+    int incrementReviewCount(Long id);
+
 }
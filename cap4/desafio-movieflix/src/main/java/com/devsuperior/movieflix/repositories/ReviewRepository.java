@@ -1,6 +1,7 @@
 package com.devsuperior.movieflix.repositories;
 
 import com.devsuperior.movieflix.entities.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -8,6 +9,8 @@ import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    @Query("SELECT obj FROM Review obj JOIN FETCH obj.user WHERE obj.movie.id = :movieId")
-    List<Review> findByMovieId(Long movieId);
+    @Query("SELECT obj FROM Review obj JOIN FETCH obj.user " +
+            "WHERE obj.movie.id = :movieId AND obj.id > :afterId " +
+            "ORDER BY obj.id")
+    List<Review> searchByMovieIdAfter(Long movieId, Long afterId, Limit limit);
 }
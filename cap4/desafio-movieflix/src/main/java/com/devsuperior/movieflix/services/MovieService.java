@@ -9,15 +9,21 @@ import com.devsuperior.movieflix.projections.MovieProjection;
 import com.devsuperior.movieflix.repositories.MovieRepository;
 import com.devsuperior.movieflix.repositories.ReviewRepository;
 import com.devsuperior.movieflix.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.movieflix.util.OrderedJoin;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class MovieService {
@@ -28,12 +34,57 @@ public class MovieService {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${movies.reviews.max-page-size}")
+    private Integer maxPageSize;
+
+    /**
+     * Reads the reviews of the movie with id greater than {@code after}, in id
+     * order, {@link #reviewsPageSize(int)} at most.
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDTO> findByMovieId(Long id) {
-        List<Review> entity = reviewRepository.findByMovieId(id);
+    public List<ReviewDTO> findByMovieId(Long id, Long after, int size) {
+        List<Review> entity = reviewRepository.searchByMovieIdAfter(id, (after != null) ? after : 0L,
+                Limit.of(reviewsPageSize(size)));
         return entity.stream().map(x -> new ReviewDTO(x)).toList();
     }
 
+    /**
+     * @return {@code size} limited to 1 through {@code movies.reviews.max-page-size}
+     */
+    public int reviewsPageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    @Transactional(readOnly = true)
+    public long countReviews(Long id) {
+        return movieRepository.findReviewCount(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
+    /**
+     * Passes every review of the movie to {@code consumer} in id order, reading
+     * {@code movies.reviews.max-page-size} at a time, each page in its own
+     * transaction, so only one page is held.
+     */
+    public void streamByMovieId(Long id, Consumer<ReviewDTO> consumer) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Long after = 0L;
+        List<Review> page;
+        do {
+            Long afterId = after;
+            page = transactionTemplate.execute(status ->
+                    reviewRepository.searchByMovieIdAfter(id, afterId, Limit.of(maxPageSize)));
+            page.forEach(x -> consumer.accept(new ReviewDTO(x)));
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == maxPageSize);
+    }
+
     @Transactional(readOnly = true)
     public MovieDetailsDTO findById(Long id) {
         Optional<Movie> obj = movieRepository.findById(id);
@@ -55,6 +106,7 @@ public class MovieService {
         List<Long> movieIds =  page.map(MovieProjection::getId).toList();
 
         List<Movie> movies = movieRepository.searchMovieWithGenre(movieIds);
+        movies = OrderedJoin.join(page.getContent(), movies, OrderedJoin.Missing.SKIP);
 
         List<MovieCardDTO> dtos = movies.stream().map(x -> new MovieCardDTO(x)).toList();
 
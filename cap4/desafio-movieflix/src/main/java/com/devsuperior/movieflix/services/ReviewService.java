@@ -29,6 +29,7 @@ public class ReviewService {
         Review entity = new Review();
         copyDtoToEntity(dto, entity);
         entity = reviewRepository.save(entity);
+        movieRepository.incrementReviewCount(dto.getMovieId());
         return new ReviewDTO(entity);
     }
 
@@ -25,3 +25,5 @@ INSERT INTO tb_movie (title, sub_title, movie_year, img_url, synopsis, genre_id)
 INSERT INTO tb_review (text, movie_id, user_id) VALUES ('Meh, filme OK', 1, 1);
 INSERT INTO tb_review (text, movie_id, user_id) VALUES ('Gostei e recomendo!', 1, 1);
 INSERT INTO tb_review (text, movie_id, user_id) VALUES ('Que Filme!!!', 2, 1);
+
+UPDATE tb_movie SET review_count = (SELECT COUNT(*) FROM tb_review WHERE tb_review.movie_id = tb_movie.id);
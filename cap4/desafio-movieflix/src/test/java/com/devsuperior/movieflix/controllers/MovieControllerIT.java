@@ -1,6 +1,10 @@
 package com.devsuperior.movieflix.controllers;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -9,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -195,4 +200,111 @@ public class MovieControllerIT {
 		result.andExpect(jsonPath("$.content[1].title").value("Kingsman"));
 		result.andExpect(jsonPath("$.content[2].title").value("Sonic"));
 	}
+
+	@Test
+	public void findReviewsShouldReturnFirstPageWithTotalAndNextLink() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, visitorUsername, visitorPassword);
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews?size=1", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.contentType(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.length()").value(1));
+		result.andExpect(jsonPath("$[0].id").value(1L));
+		result.andExpect(jsonPath("$[0].userName").value("Bob"));
+		result.andExpect(header().string("X-Total-Count", "2"));
+		result.andExpect(header().string(HttpHeaders.LINK, containsString("after=1")));
+		result.andExpect(header().exists(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void findReviewsShouldReturnReviewsAfterGivenIdWithoutNextLink() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, visitorUsername, visitorPassword);
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews?after=1&size=10", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.contentType(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.length()").value(1));
+		result.andExpect(jsonPath("$[0].id").value(2L));
+		result.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	public void findReviewsShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, visitorUsername, visitorPassword);
+
+		String eTag = mockMvc.perform(get("/movies/{id}/reviews", existingId)
+					.header("Authorization", "Bearer " + accessToken))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+		result.andExpect(status().isNotModified());
+		result.andExpect(content().string(""));
+
+		mockMvc.perform(get("/movies/{id}/reviews?after=1", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void findReviewsShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, visitorUsername, visitorPassword);
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews", nonExistingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.contentType(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void findReviewsShouldCountInsertedReview() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, memberUsername, memberPassword);
+
+		mockMvc.perform(post("/reviews")
+					.header("Authorization", "Bearer " + accessToken)
+					.content("{\"text\": \"Gostei do filme!\", \"movieId\": " + existingId + "}")
+					.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated());
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.contentType(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.length()").value(3));
+		result.andExpect(header().string("X-Total-Count", "3"));
+	}
+
+	@Test
+	public void streamReviewsShouldReturnOneJsonLinePerReview() throws Exception {
+
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, visitorUsername, visitorPassword);
+
+		ResultActions result =
+				mockMvc.perform(get("/movies/{id}/reviews/stream", existingId)
+					.header("Authorization", "Bearer " + accessToken));
+
+		result.andExpect(status().isOk());
+		result.andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("application/x-ndjson")));
+		result.andExpect(content().string(containsString("\"id\":1,")));
+		result.andExpect(content().string(containsString("\"id\":2,")));
+	}
 }
@@ -1,15 +1,34 @@
 package com.devsuperior.dscatalog.config;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+	@Value("${security.password.bcrypt-strength}")
+	private Integer bcryptStrength;
+
+	@Value("${security.password.hashing-threads}")
+	private Integer hashingThreads;
+
+	@Value("${security.password.hashing-queue}")
+	private Integer hashingQueue;
+
 	@Bean
 	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+		// hashes stored before the {id} prefix existed are plain bcrypt
+		encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		return new BoundedPasswordEncoder(encoder, hashingThreads, hashingQueue);
 	}
 }
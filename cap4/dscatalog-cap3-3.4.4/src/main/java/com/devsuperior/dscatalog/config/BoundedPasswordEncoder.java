@@ -0,0 +1,93 @@
+package com.devsuperior.dscatalog.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs hashing of the delegate encoder on a fixed pool with a bounded queue.
+ * <p>
+ * At most {@code threads} hashes are computed at once, so a login storm cannot
+ * take every CPU from the other requests. When the queue is full, encode and
+ * matches throw {@link RejectedExecutionException} right away instead of
+ * waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+		this.delegate = delegate;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return call(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return call(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Starts hashing the password on the pool without waiting for it.
+	 *
+	 * @throws RejectedExecutionException when the queue is full
+	 */
+	public Future<String> submitEncode(CharSequence rawPassword) {
+		return executor.submit(() -> delegate.encode(rawPassword));
+	}
+
+	/**
+	 * @return the number of hashes computed at once
+	 */
+	public int getThreads() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * Waits for a hash started by {@link #submitEncode(CharSequence)}.
+	 */
+	public static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing password", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> T call(Callable<T> task) {
+		return await(executor.submit(task));
+	}
+}
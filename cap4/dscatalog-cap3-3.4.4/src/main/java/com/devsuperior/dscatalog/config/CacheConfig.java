@@ -0,0 +1,49 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String USERS = "users";
+	public static final String PRODUCT_TOTALS = "productTotals";
+
+	@Value("${cache.users.max-size}")
+	private Long usersMaxSize;
+
+	@Value("${cache.users.ttl}")
+	private Duration usersTtl;
+
+	@Value("${cache.product-totals.max-size}")
+	private Long productTotalsMaxSize;
+
+	@Value("${cache.product-totals.ttl}")
+	private Duration productTotalsTtl;
+
+	@Bean
+	CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setAllowNullValues(false);
+		cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+				.maximumSize(usersMaxSize)
+				.expireAfterWrite(usersTtl)
+				.build());
+		cacheManager.registerCustomCache(PRODUCT_TOTALS, Caffeine.newBuilder()
+				.maximumSize(productTotalsMaxSize)
+				.expireAfterWrite(productTotalsTtl)
+				.build());
+		// evictions issued inside a transaction only run after it commits
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
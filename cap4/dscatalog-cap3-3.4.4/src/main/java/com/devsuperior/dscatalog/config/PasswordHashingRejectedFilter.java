@@ -0,0 +1,48 @@
+package com.devsuperior.dscatalog.config;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers the authorization server endpoints with 503 and
+ * {@code temporarily_unavailable} when {@link BoundedPasswordEncoder} rejects
+ * a client secret or password check, instead of letting it surface as a 500.
+ */
+public class PasswordHashingRejectedFilter extends OncePerRequestFilter {
+
+	static final String RETRY_AFTER_SECONDS = "1";
+
+	private final OAuth2ErrorHttpMessageConverter errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, response);
+		}
+		catch (RejectedExecutionException e) {
+			if (response.isCommitted()) {
+				throw e;
+			}
+			response.reset();
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+			OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+					"Too many logins in progress, try again later", null);
+			errorConverter.write(error, null, new ServletServerHttpResponse(response));
+		}
+	}
+}
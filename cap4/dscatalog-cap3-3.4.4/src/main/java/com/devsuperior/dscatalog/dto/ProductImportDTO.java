@@ -0,0 +1,58 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a product import. Only the first {@code maxErrors} rejected rows
+ * are listed, so the report stays small for a file of any size.
+ */
+public class ProductImportDTO {
+
+	private long inserted;
+	private long updated;
+	private long rejected;
+	private List<RowErrorDTO> errors = new ArrayList<>();
+
+	private final int maxErrors;
+
+	public ProductImportDTO(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	public long getInserted() {
+		return inserted;
+	}
+
+	public void addInserted(long count) {
+		inserted += count;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	public void addUpdated(long count) {
+		updated += count;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public List<RowErrorDTO> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Counts the row as rejected. Call once per row.
+	 */
+	public void reject(List<RowErrorDTO> rowErrors) {
+		rejected++;
+		for (RowErrorDTO error : rowErrors) {
+			if (errors.size() < maxErrors) {
+				errors.add(error);
+			}
+		}
+	}
+}
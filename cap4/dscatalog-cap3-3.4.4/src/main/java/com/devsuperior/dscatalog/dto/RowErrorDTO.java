@@ -0,0 +1,8 @@
+package com.devsuperior.dscatalog.dto;
+
+/**
+ * Row of a bulk import that was not imported. {@code line} is the 1-based
+ * line of the file.
+ */
+public record RowErrorDTO(long line, String fieldName, String message) {
+}
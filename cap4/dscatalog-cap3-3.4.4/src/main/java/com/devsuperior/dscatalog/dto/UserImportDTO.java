@@ -0,0 +1,49 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a user import. Only the first {@code maxErrors} rejected rows
+ * are listed, so the report stays small for a file of any size.
+ */
+public class UserImportDTO {
+
+	private long imported;
+	private long rejected;
+	private List<RowErrorDTO> errors = new ArrayList<>();
+
+	private final int maxErrors;
+
+	public UserImportDTO(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public void addImported(long count) {
+		imported += count;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public List<RowErrorDTO> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Counts the row as rejected. Call once per row.
+	 */
+	public void reject(List<RowErrorDTO> rowErrors) {
+		rejected++;
+		for (RowErrorDTO error : rowErrors) {
+			if (errors.size() < maxErrors) {
+				errors.add(error);
+			}
+		}
+	}
+}
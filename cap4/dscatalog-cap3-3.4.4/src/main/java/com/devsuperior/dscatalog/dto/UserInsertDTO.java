@@ -16,6 +16,11 @@ public class UserInsertDTO extends UserDTO {
 	UserInsertDTO() {
 		super();
 	}
+
+	public UserInsertDTO(String firstName, String lastName, String email, String password) {
+		super(null, firstName, lastName, email);
+		this.password = password;
+	}
 	
 	public String getPassword() {
 		return password;
@@ -5,15 +5,22 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.Objects;
 
+/**
+ * Pending password recovery. Only the SHA-256 of the token is stored, so the
+ * table does not give access to accounts if read.
+ */
 @Entity
-@Table(name = "tb_passord_recover")
+@Table(name = "tb_passord_recover", indexes = {
+        @Index(name = "ux_password_recover_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "ix_password_recover_email", columnList = "email"),
+        @Index(name = "ix_password_recover_expiration", columnList = "expiration")})
 public class PasswordRecover {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
-    private String token;
+    @Column(nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private String email;
@@ -24,9 +31,9 @@ public class PasswordRecover {
     public PasswordRecover() {
     }
 
-    public PasswordRecover(Long id, String token, String email, Instant expiration) {
+    public PasswordRecover(Long id, byte[] tokenHash, String email, Instant expiration) {
         this.id = id;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.email = email;
         this.expiration = expiration;
     }
@@ -39,12 +46,12 @@ public class PasswordRecover {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public String getEmail() {
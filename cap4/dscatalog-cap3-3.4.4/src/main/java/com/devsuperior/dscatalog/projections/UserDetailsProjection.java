@@ -5,5 +5,4 @@ public interface UserDetailsProjection {
 	String getUsername();
 	String getPassword();
 	Long getRoleId();
-	String getAuthority();
 }
@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
@@ -0,0 +1,28 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT obj.id FROM EmailOutbox obj WHERE obj.nextAttemptAt <= :now ORDER BY obj.nextAttemptAt, obj.id")
+    List<Long> searchDueIds(Instant now, Limit limit);
+
+    /**
+     * Leases the rows that are still due to {@code claimToken} until
+     * {@code leaseUntil}, so no other dispatcher picks them meanwhile.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox obj SET obj.claimToken = :claimToken, obj.nextAttemptAt = :leaseUntil "
+            + "WHERE obj.id IN :ids AND obj.nextAttemptAt <= :now")
+    int claim(List<Long> ids, Instant now, String claimToken, Instant leaseUntil);
+
+    @Query("SELECT obj FROM EmailOutbox obj WHERE obj.claimToken = :claimToken ORDER BY obj.id")
+    List<EmailOutbox> searchClaimed(String claimToken);
+}
@@ -0,0 +1,145 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+/**
+ * Product listing that returns a page of products with their categories in a
+ * single statement.
+ * <p>
+ * The inner query filters and numbers the matching products with
+ * {@code ROW_NUMBER()} and, when asked, counts them with
+ * {@code COUNT(*) OVER ()}; the outer query joins only the products of the
+ * page to their categories. Products without a category are not listed.
+ * Sorting is limited to id, name, price and date, other properties are ignored,
+ * and id is always the last tie-breaker so pages are stable.
+ */
+@Repository
+public class ProductListingRepository {
+
+	private static final Map<String, String> SORT_COLUMNS = Map.of(
+			"id", "tb_product.id",
+			"name", "tb_product.name",
+			"price", "tb_product.price",
+			"date", "tb_product.date");
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	public record Listing(List<ProductDTO> content, Long total) {
+	}
+
+	/**
+	 * @return the page content, and the number of matching products when
+	 *         {@code withTotal} is set and the page is not past the end
+	 */
+	public Listing search(List<Long> categoryIds, String name, Pageable pageable, boolean withTotal) {
+		MapSqlParameterSource params = filterParams(categoryIds, name);
+		StringBuilder inner = new StringBuilder()
+				.append("SELECT tb_product.id, ROW_NUMBER() OVER (ORDER BY ").append(orderBy(pageable.getSort())).append(") AS rn, ")
+				.append(withTotal ? "COUNT(*) OVER ()" : "NULL").append(" AS total ")
+				.append("FROM tb_product WHERE ").append(filter(categoryIds)).append(" ORDER BY rn");
+		if (pageable.isPaged()) {
+			inner.append(" LIMIT :limit OFFSET :offset");
+			params.addValue("limit", pageable.getPageSize());
+			params.addValue("offset", pageable.getOffset());
+		}
+		return jdbcTemplate.query(withCategories(inner.toString()), params, this::toListing);
+	}
+
+	/**
+	 * Listed products with id greater than {@code afterId}, by id. Unlike deep
+	 * {@link #search} pages, the cost does not grow with {@code afterId}.
+	 */
+	public List<ProductDTO> scan(long afterId, int limit) {
+		String inner = "SELECT tb_product.id, tb_product.id AS rn, NULL AS total FROM tb_product "
+				+ "WHERE tb_product.id > :afterId "
+				+ "AND tb_product.id IN (SELECT tb_product_category.product_id FROM tb_product_category) "
+				+ "ORDER BY tb_product.id LIMIT :limit";
+		MapSqlParameterSource params = new MapSqlParameterSource("afterId", afterId).addValue("limit", limit);
+		return jdbcTemplate.query(withCategories(inner), params, this::toListing).content();
+	}
+
+	public long count(List<Long> categoryIds, String name) {
+		String sql = "SELECT COUNT(*) FROM tb_product WHERE " + filter(categoryIds);
+		return jdbcTemplate.queryForObject(sql, filterParams(categoryIds, name), Long.class);
+	}
+
+	private static String withCategories(String page) {
+		return "SELECT r.total, tb_product.id, tb_product.name, tb_product.description, tb_product.price, "
+				+ "tb_product.img_url, tb_product.date, tb_category.id AS category_id, tb_category.name AS category_name "
+				+ "FROM (" + page + ") r "
+				// outer joins keep the page as the driving table
+				+ "LEFT JOIN tb_product ON tb_product.id = r.id "
+				+ "LEFT JOIN tb_product_category ON tb_product_category.product_id = tb_product.id "
+				+ "LEFT JOIN tb_category ON tb_category.id = tb_product_category.category_id "
+				+ "ORDER BY r.rn, tb_category.id";
+	}
+
+	private static String filter(List<Long> categoryIds) {
+		return "LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%')) "
+				+ "AND tb_product.id IN (SELECT tb_product_category.product_id FROM tb_product_category"
+				+ (categoryIds.isEmpty() ? ")" : " WHERE tb_product_category.category_id IN (:categoryIds))");
+	}
+
+	private static MapSqlParameterSource filterParams(List<Long> categoryIds, String name) {
+		MapSqlParameterSource params = new MapSqlParameterSource("name", name);
+		if (!categoryIds.isEmpty()) {
+			params.addValue("categoryIds", categoryIds);
+		}
+		return params;
+	}
+
+	private static String orderBy(Sort sort) {
+		List<String> columns = new ArrayList<>();
+		for (Sort.Order order : sort) {
+			String column = SORT_COLUMNS.get(order.getProperty());
+			if (column != null && !order.getProperty().equals("id")) {
+				columns.add(column + (order.isDescending() ? " DESC" : " ASC"));
+			}
+		}
+		Sort.Order byId = sort.getOrderFor("id");
+		columns.add("tb_product.id" + (byId != null && byId.isDescending() ? " DESC" : " ASC"));
+		return String.join(", ", columns);
+	}
+
+	private Listing toListing(ResultSet rs) throws SQLException {
+		Map<Long, ProductDTO> products = new LinkedHashMap<>();
+		Long total = null;
+		while (rs.next()) {
+			if (total == null) {
+				total = rs.getObject("total", Long.class);
+			}
+			Long id = rs.getLong("id");
+			ProductDTO dto = products.get(id);
+			if (dto == null) {
+				// Instant columns are written as UTC timestamps without time zone
+				LocalDateTime date = rs.getObject("date", LocalDateTime.class);
+				dto = new ProductDTO(id, rs.getString("name"), rs.getString("description"), rs.getObject("price", Double.class),
+						rs.getString("img_url"), (date != null) ? date.toInstant(ZoneOffset.UTC) : null);
+				products.put(id, dto);
+			}
+			Long categoryId = rs.getObject("category_id", Long.class);
+			if (categoryId != null) {
+				dto.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+			}
+		}
+		return new Listing(new ArrayList<>(products.values()), total);
+	}
+}
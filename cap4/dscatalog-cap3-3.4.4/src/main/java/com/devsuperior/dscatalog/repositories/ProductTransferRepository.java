@@ -0,0 +1,195 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+/**
+ * JDBC batch writes and a streaming read of the whole catalog, for the bulk
+ * product import and export.
+ * <p>
+ * Like {@link ProductListingRepository}, {@code Instant} dates are written
+ * and read as UTC timestamps without time zone.
+ */
+@Repository
+public class ProductTransferRepository {
+
+	private static final String EXPORT_SQL = "SELECT tb_product.id, tb_product.name, tb_product.description, "
+			+ "tb_product.price, tb_product.img_url, tb_product.date, tb_category.id AS category_id, "
+			+ "tb_category.name AS category_name "
+			+ "FROM tb_product "
+			+ "LEFT JOIN tb_product_category ON tb_product_category.product_id = tb_product.id "
+			+ "LEFT JOIN tb_category ON tb_category.id = tb_product_category.category_id "
+			+ "ORDER BY tb_product.id, tb_category.id";
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	/**
+	 * @return name of each of {@code ids} that exists
+	 */
+	public Map<Long, String> findCategoryNames(Collection<Long> ids) {
+		Map<Long, String> names = new HashMap<>();
+		if (ids.isEmpty()) {
+			return names;
+		}
+		jdbcTemplate.query("SELECT id, name FROM tb_category WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids),
+				(RowCallbackHandler) rs -> names.put(rs.getLong("id"), rs.getString("name")));
+		return names;
+	}
+
+	/**
+	 * @return category ids of each of {@code productIds} that has categories
+	 */
+	public Map<Long, List<Long>> findCategoryIds(Collection<Long> productIds) {
+		Map<Long, List<Long>> categoryIds = new HashMap<>();
+		if (productIds.isEmpty()) {
+			return categoryIds;
+		}
+		jdbcTemplate.query("SELECT product_id, category_id FROM tb_product_category WHERE product_id IN (:productIds)",
+				new MapSqlParameterSource("productIds", productIds),
+				(RowCallbackHandler) rs -> categoryIds.computeIfAbsent(rs.getLong("product_id"), id -> new ArrayList<>())
+						.add(rs.getLong("category_id")));
+		return categoryIds;
+	}
+
+	/**
+	 * Inserts the products in one batch and sets their generated ids. Does not
+	 * write the categories.
+	 */
+	public void insert(List<ProductDTO> products) {
+		if (products.isEmpty()) {
+			return;
+		}
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, description, price, img_url, date) "
+				+ "VALUES (:name, :description, :price, :imgUrl, :date)", params(products), keyHolder, new String[] { "id" });
+		List<Map<String, Object>> keys = keyHolder.getKeyList();
+		for (int i = 0; i < products.size(); i++) {
+			products.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+		}
+	}
+
+	/**
+	 * Updates the products by id in one batch. Does not write the categories.
+	 *
+	 * @return the rows changed per product, zero when the id does not exist
+	 */
+	public int[] update(List<ProductDTO> products) {
+		if (products.isEmpty()) {
+			return new int[0];
+		}
+		return jdbcTemplate.batchUpdate("UPDATE tb_product SET name = :name, description = :description, "
+				+ "price = :price, img_url = :imgUrl, date = :date WHERE id = :id", params(products));
+	}
+
+	/**
+	 * Replaces the categories of the products: one delete for all of them,
+	 * then one batch of inserts.
+	 */
+	public void replaceCategories(List<ProductDTO> products) {
+		if (products.isEmpty()) {
+			return;
+		}
+		List<Long> productIds = products.stream().map(ProductDTO::getId).toList();
+		jdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id IN (:productIds)",
+				new MapSqlParameterSource("productIds", productIds));
+
+		List<MapSqlParameterSource> links = new ArrayList<>();
+		for (ProductDTO product : products) {
+			for (CategoryDTO category : product.getCategories()) {
+				links.add(new MapSqlParameterSource("productId", product.getId()).addValue("categoryId", category.getId()));
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (:productId, :categoryId)",
+				links.toArray(new MapSqlParameterSource[0]));
+	}
+
+	/**
+	 * Passes every product, with its categories, to {@code consumer} in id
+	 * order. Rows are fetched {@code fetchSize} at a time; on PostgreSQL this
+	 * holds a cursor only when called inside a transaction.
+	 */
+	public void export(int fetchSize, Consumer<ProductDTO> consumer) {
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.setFetchSize(fetchSize);
+		ProductRows rows = new ProductRows(consumer);
+		template.query(EXPORT_SQL, rows);
+		rows.flush();
+	}
+
+	/**
+	 * Joins the consecutive rows of each product; only one product is held.
+	 */
+	private static class ProductRows implements RowCallbackHandler {
+
+		private final Consumer<ProductDTO> consumer;
+		private ProductDTO current;
+
+		ProductRows(Consumer<ProductDTO> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			long id = rs.getLong("id");
+			if (current == null || current.getId() != id) {
+				flush();
+				LocalDateTime date = rs.getObject("date", LocalDateTime.class);
+				current = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+						rs.getObject("price", Double.class), rs.getString("img_url"),
+						(date != null) ? date.toInstant(ZoneOffset.UTC) : null);
+			}
+			Long categoryId = rs.getObject("category_id", Long.class);
+			if (categoryId != null) {
+				current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+			}
+		}
+
+		void flush() {
+			if (current != null) {
+				consumer.accept(current);
+				current = null;
+			}
+		}
+	}
+
+	private static MapSqlParameterSource[] params(List<ProductDTO> products) {
+		MapSqlParameterSource[] params = new MapSqlParameterSource[products.size()];
+		for (int i = 0; i < products.size(); i++) {
+			ProductDTO product = products.get(i);
+			params[i] = new MapSqlParameterSource()
+					.addValue("id", product.getId())
+					.addValue("name", product.getName())
+					.addValue("description", product.getDescription())
+					.addValue("price", product.getPrice())
+					.addValue("imgUrl", product.getImgUrl())
+					.addValue("date", (product.getDate() != null) ? LocalDateTime.ofInstant(product.getDate(), ZoneOffset.UTC) : null);
+		}
+		return params;
+	}
+}
@@ -1,5 +1,6 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,11 +15,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	
 	User findByEmail(String email);
 
+	@Query("SELECT obj.email FROM User obj WHERE obj.email IN :emails")
+	List<String> searchEmails(Collection<String> emails);
+
 	@Query(nativeQuery = true, value = """
-			SELECT tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority
+			SELECT tb_user.email AS username, tb_user.password, tb_user_role.role_id AS roleId
 			FROM tb_user
 			INNER JOIN tb_user_role ON tb_user.id = tb_user_role.user_id
-			INNER JOIN tb_role ON tb_role.id = tb_user_role.role_id
 			WHERE tb_user.email = :email
 		""")
 	List<UserDetailsProjection> searchUserAndRolesByEmail(String email);
@@ -1,19 +1,26 @@
 package com.devsuperior.dscatalog.resources;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Map;
 
-import com.devsuperior.dscatalog.projections.ProductProjection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportDTO;
+import com.devsuperior.dscatalog.services.DataFormat;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.ProductTransferService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -22,6 +29,9 @@ public class ProductResource {
 
 	@Autowired
 	private ProductService service;
+
+	@Autowired
+	private ProductTransferService transferService;
 	
 //	@GetMapping
 //	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
@@ -45,10 +55,16 @@ public class ProductResource {
 	}
 
 	@GetMapping(value = "/count")
-	public ResponseEntity<Long> count() {
-		Long total = service.count();
+	public ResponseEntity<Long> count(@RequestParam(value = "categoryId", required = false) Long categoryId) {
+		Long total = (categoryId == null) ? service.count() : service.countByCategory(categoryId);
 		return ResponseEntity.ok(total);
 	}
+
+	@GetMapping(value = "/count/categories")
+	public ResponseEntity<Map<Long, Long>> countByCategories() {
+		Map<Long, Long> counts = service.countByCategories();
+		return ResponseEntity.ok(counts);
+	}
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
 	@PostMapping
@@ -59,6 +75,24 @@ public class ProductResource {
 		return ResponseEntity.created(uri).body(dto);
 	}
 
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@PostMapping(value = "/import", consumes = { DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE })
+	public ResponseEntity<ProductImportDTO> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException {
+		ProductImportDTO result = transferService.importProducts(body, DataFormat.of(contentType));
+		return ResponseEntity.ok().body(result);
+	}
+
+	// written straight to the response, so the catalog is never held in memory
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@GetMapping(value = "/export")
+	public void exportProducts(@RequestParam(value = "format", defaultValue = "NDJSON") DataFormat format,
+			HttpServletResponse response) throws IOException {
+		response.setContentType(format.getMediaType().toString());
+		response.setCharacterEncoding("UTF-8");
+		transferService.exportProducts(format, response.getOutputStream());
+	}
+
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
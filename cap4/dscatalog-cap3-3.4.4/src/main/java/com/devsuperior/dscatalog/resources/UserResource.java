@@ -1,10 +1,13 @@
 package com.devsuperior.dscatalog.resources;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,13 +16,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.devsuperior.dscatalog.dto.UserDTO;
+import com.devsuperior.dscatalog.dto.UserImportDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
+import com.devsuperior.dscatalog.services.DataFormat;
+import com.devsuperior.dscatalog.services.UserImportService;
 import com.devsuperior.dscatalog.services.UserService;
 
 import jakarta.validation.Valid;
@@ -30,6 +37,9 @@ public class UserResource {
 
 	@Autowired
 	private UserService service;
+
+	@Autowired
+	private UserImportService importService;
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
 	@GetMapping
@@ -61,6 +71,14 @@ public class UserResource {
 		return ResponseEntity.created(uri).body(newDto);
 	}
 
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+	@PostMapping(value = "/bulk", consumes = { DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE })
+	public ResponseEntity<UserImportDTO> insertBulk(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException {
+		UserImportDTO result = importService.importUsers(body, DataFormat.of(contentType));
+		return ResponseEntity.ok().body(result);
+	}
+
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<UserDTO> update(@PathVariable Long id, @RequestBody @Valid UserUpdateDTO dto) {
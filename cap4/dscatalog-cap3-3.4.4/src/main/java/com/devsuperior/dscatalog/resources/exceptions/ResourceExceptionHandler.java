@@ -1,8 +1,10 @@
 package com.devsuperior.dscatalog.resources.exceptions;
 
 import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.devsuperior.dscatalog.services.exceptions.EmailException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -70,4 +72,16 @@ public class ResourceExceptionHandler {
 		err.setPath(request.getRequestURI());
 		return ResponseEntity.status(status).body(err);
 	}
+
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<StandardError> rejected(RejectedExecutionException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Service unavailable");
+		err.setMessage("Too many requests in progress, try again later");
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+	}
 }
@@ -1,5 +1,6 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.EmailDTO;
 import com.devsuperior.dscatalog.dto.NewPasswordDTO;
 import com.devsuperior.dscatalog.entities.PasswordRecover;
@@ -9,6 +10,7 @@ import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,13 +19,20 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
-import java.util.List;
-import java.util.UUID;
+import java.util.Base64;
 
 @Service
 public class AuthService {
 
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
     @Value("${email.password-recover.token.minutes}")
     private Long tokenMinutes;
 
@@ -42,6 +51,9 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Transactional
     public void createRecoverToken(EmailDTO body) {
 
@@ -50,11 +62,13 @@ public class AuthService {
             throw new ResourceNotFoundException("Email not found");
         }
 
-        String token = UUID.randomUUID().toString();
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(tokenBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
 
         PasswordRecover entity = new PasswordRecover();
         entity.setEmail(body.getEmail());
-        entity.setToken(token);
+        entity.setTokenHash(hash(token));
         entity.setExpiration(Instant.now().plusSeconds(tokenMinutes * 60L));
         entity = passwordRecoverRepository.save(entity);
 
@@ -67,16 +81,29 @@ public class AuthService {
     @Transactional
     public void saveNewPassword(NewPasswordDTO body) {
 
-        List<PasswordRecover> result = passwordRecoverRepository.
-                searchValidTokens(body.getToken(), Instant.now());
+        PasswordRecover recover = passwordRecoverRepository
+                .searchValidToken(hash(body.getToken()), Instant.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Token invalido"));
 
-        if (result.isEmpty()) {
+        // tokens are single use: the first request to remove them wins
+        if (passwordRecoverRepository.deleteByEmail(recover.getEmail()) == 0) {
             throw new ResourceNotFoundException("Token invalido");
         }
 
-        User user = userRepository.findByEmail(result.get(0).getEmail());
+        User user = userRepository.findByEmail(recover.getEmail());
         user.setPassword(passwordEncoder.encode(body.getPassword()));
         user = userRepository.save(user);
+
+        cacheManager.getCache(CacheConfig.USERS).evict(user.getEmail());
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     protected User authenticated() {
@@ -25,6 +25,9 @@ public class CategoryService {
 
 	@Autowired
 	private CategoryRepository repository;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
 	
 	@Transactional(readOnly = true)
 	public List<CategoryDTO> findAll() {
@@ -53,6 +56,7 @@ public class CategoryService {
 			Category entity = repository.getReferenceById(id);
 			entity.setName(dto.getName());
 			entity = repository.save(entity);
+			searchIndex.renameCategory(id, entity.getName());
 			return new CategoryDTO(entity);
 		}
 		catch (EntityNotFoundException e) {
@@ -0,0 +1,32 @@
+package com.devsuperior.dscatalog.services;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line based formats of the bulk import and export endpoints.
+ */
+public enum DataFormat {
+
+	NDJSON(MediaType.parseMediaType(DataFormat.NDJSON_VALUE)),
+	CSV(MediaType.parseMediaType(DataFormat.CSV_VALUE));
+
+	public static final String NDJSON_VALUE = "application/x-ndjson";
+	public static final String CSV_VALUE = "text/csv";
+
+	private final MediaType mediaType;
+
+	DataFormat(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * @return CSV for {@code text/csv}, NDJSON otherwise
+	 */
+	public static DataFormat of(String mediaType) {
+		return MediaType.parseMediaType(mediaType).isCompatibleWith(CSV.mediaType) ? CSV : NDJSON;
+	}
+}
@@ -0,0 +1,321 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.entities.EmailDeadLetter;
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.repositories.EmailDeadLetterRepository;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sends the emails stored in the outbox by {@link EmailService}.
+ * <p>
+ * Due rows are leased in batches and each batch is sent over one SMTP
+ * connection by a virtual thread, with at most {@code email.outbox.workers}
+ * batches in flight. Sending happens outside any transaction. A failed email
+ * is retried with exponential backoff and moved to the dead letter table after
+ * {@code email.outbox.max-attempts} attempts. Rows leased by an instance that
+ * stopped become due again when the lease expires, so an email may be sent
+ * twice but is never lost.
+ * <p>
+ * Meters: {@code email.outbox.depth} (rows waiting), {@code email.outbox.send}
+ * (time of each SMTP batch, by outcome), {@code email.outbox.delivery} (time
+ * from enqueue to acceptance by the server) and
+ * {@code email.outbox.dead.letters}.
+ */
+@Component
+public class EmailOutboxDispatcher implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	@Value("${spring.mail.username}")
+	private String emailFrom;
+
+	@Value("${email.outbox.batch-size}")
+	private Integer batchSize;
+
+	@Value("${email.outbox.workers}")
+	private Integer workers;
+
+	@Value("${email.outbox.max-attempts}")
+	private Integer maxAttempts;
+
+	@Value("${email.outbox.initial-backoff}")
+	private Duration initialBackoff;
+
+	@Value("${email.outbox.max-backoff}")
+	private Duration maxBackoff;
+
+	@Value("${email.outbox.lease}")
+	private Duration lease;
+
+	@Autowired
+	private JavaMailSender emailSender;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@Autowired
+	private EmailDeadLetterRepository deadLetterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final AtomicBoolean dispatching = new AtomicBoolean();
+	private volatile boolean dispatchAgain;
+
+	private SimpleAsyncTaskExecutor executor;
+	private Semaphore workerSlots;
+	private TransactionTemplate transactionTemplate;
+	private Timer delivery;
+	private Counter deadLetters;
+
+	@PostConstruct
+	void init() {
+		executor = new SimpleAsyncTaskExecutor("email-outbox-");
+		executor.setVirtualThreads(true);
+		workerSlots = new Semaphore(workers);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		Gauge.builder("email.outbox.depth", outboxRepository, EmailOutboxRepository::count)
+				.description("Emails waiting to be sent")
+				.register(meterRegistry);
+		delivery = Timer.builder("email.outbox.delivery")
+				.description("Time from enqueue until the SMTP server accepts the email")
+				.register(meterRegistry);
+		deadLetters = Counter.builder("email.outbox.dead.letters")
+				.description("Emails given up after the maximum number of attempts")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Starts a dispatch without waiting for the next poll, e.g. right after an
+	 * email is committed.
+	 */
+	public void wakeUp() {
+		try {
+			executor.execute(this::dispatch);
+		}
+		catch (TaskRejectedException e) {
+			// shutting down, the rows are sent by the next start
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${email.outbox.poll-interval}")
+	public void poll() {
+		dispatch();
+	}
+
+	/**
+	 * Claims due batches while there are free workers. Only one thread claims
+	 * at a time; a call made meanwhile makes it look again before leaving.
+	 */
+	public void dispatch() {
+		if (!dispatching.compareAndSet(false, true)) {
+			dispatchAgain = true;
+			return;
+		}
+		try {
+			do {
+				dispatchAgain = false;
+				while (workerSlots.tryAcquire()) {
+					List<EmailOutbox> batch;
+					try {
+						batch = claim();
+					}
+					catch (RuntimeException e) {
+						workerSlots.release();
+						throw e;
+					}
+					if (batch.isEmpty()) {
+						workerSlots.release();
+						break;
+					}
+					try {
+						executor.execute(() -> deliver(batch));
+					}
+					catch (TaskRejectedException e) {
+						// the lease expires and another dispatch picks the batch
+						workerSlots.release();
+						return;
+					}
+				}
+			} while (dispatchAgain);
+		}
+		catch (RuntimeException e) {
+			logger.error("Failed to claim emails from the outbox", e);
+		}
+		finally {
+			dispatching.set(false);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.close();
+	}
+
+	private List<EmailOutbox> claim() {
+		return transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			List<Long> ids = outboxRepository.searchDueIds(now, Limit.of(batchSize));
+			if (ids.isEmpty()) {
+				return List.<EmailOutbox>of();
+			}
+			String claimToken = UUID.randomUUID().toString();
+			outboxRepository.claim(ids, now, claimToken, now.plus(lease));
+			return outboxRepository.searchClaimed(claimToken);
+		});
+	}
+
+	private void deliver(List<EmailOutbox> batch) {
+		boolean full = batch.size() == batchSize;
+		try {
+			SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+			for (int i = 0; i < messages.length; i++) {
+				messages[i] = toMessage(batch.get(i));
+			}
+			Map<Object, Exception> failures = send(messages);
+
+			List<EmailOutbox> sent = new ArrayList<>();
+			List<EmailOutbox> failed = new ArrayList<>();
+			for (int i = 0; i < messages.length; i++) {
+				Exception failure = failures.get(messages[i]);
+				if (failure == null) {
+					sent.add(batch.get(i));
+				}
+				else {
+					batch.get(i).setLastError(truncate(String.valueOf(failure.getMessage())));
+					failed.add(batch.get(i));
+				}
+			}
+			complete(sent, failed);
+		}
+		catch (RuntimeException e) {
+			logger.error("Failed to record the result of {} emails, they are retried after the lease", batch.size(), e);
+		}
+		finally {
+			workerSlots.release();
+		}
+		if (full) {
+			dispatch();
+		}
+	}
+
+	/**
+	 * Sends the messages over one connection.
+	 *
+	 * @return the failed messages with their cause
+	 */
+	private Map<Object, Exception> send(SimpleMailMessage[] messages) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "success";
+		try {
+			emailSender.send(messages);
+			return Map.of();
+		}
+		catch (MailSendException e) {
+			outcome = "failure";
+			if (!e.getFailedMessages().isEmpty()) {
+				return e.getFailedMessages();
+			}
+			return failAll(messages, e);
+		}
+		catch (MailException e) {
+			outcome = "failure";
+			return failAll(messages, e);
+		}
+		finally {
+			sample.stop(meterRegistry.timer("email.outbox.send", "outcome", outcome));
+		}
+	}
+
+	private void complete(List<EmailOutbox> sent, List<EmailOutbox> failed) {
+		Instant now = Instant.now();
+		transactionTemplate.executeWithoutResult(status -> {
+			outboxRepository.deleteAllByIdInBatch(sent.stream().map(EmailOutbox::getId).toList());
+			for (EmailOutbox email : failed) {
+				email.setAttempts(email.getAttempts() + 1);
+				email.setClaimToken(null);
+				if (email.getAttempts() >= maxAttempts) {
+					deadLetterRepository.save(new EmailDeadLetter(email, now));
+					outboxRepository.deleteById(email.getId());
+					deadLetters.increment();
+					logger.warn("Giving up email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), email.getAttempts(), email.getLastError());
+				}
+				else {
+					email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+					outboxRepository.save(email);
+				}
+			}
+		});
+		for (EmailOutbox email : sent) {
+			delivery.record(Duration.between(email.getCreatedAt(), now));
+		}
+	}
+
+	/**
+	 * {@code initialBackoff * 2^(attempts - 1)}, capped at {@code maxBackoff}.
+	 */
+	Duration backoff(int attempts) {
+		int shift = Math.min(attempts - 1, 30);
+		Duration result = initialBackoff.multipliedBy(1L << shift);
+		return (result.compareTo(maxBackoff) > 0) ? maxBackoff : result;
+	}
+
+	private SimpleMailMessage toMessage(EmailOutbox email) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom(emailFrom);
+		message.setTo(email.getRecipient());
+		message.setSubject(email.getSubject());
+		message.setText(email.getBody());
+		return message;
+	}
+
+	private static Map<Object, Exception> failAll(SimpleMailMessage[] messages, Exception e) {
+		Map<Object, Exception> result = new IdentityHashMap<>();
+		for (SimpleMailMessage message : messages) {
+			result.put(message, e);
+		}
+		return result;
+	}
+
+	private static String truncate(String text) {
+		return (text.length() > MAX_ERROR_LENGTH) ? text.substring(0, MAX_ERROR_LENGTH) : text;
+	}
+}
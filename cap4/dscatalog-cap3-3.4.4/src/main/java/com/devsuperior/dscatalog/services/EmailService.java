@@ -1,33 +1,38 @@
 package com.devsuperior.dscatalog.services;
 
-import com.devsuperior.dscatalog.services.exceptions.EmailException;
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
 
 @Service
 public class EmailService {
-	
-	@Value("${spring.mail.username}")
-	private String emailFrom;
-	
+
     @Autowired
-    private JavaMailSender emailSender;
+    private EmailOutboxRepository outboxRepository;
 
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    /**
+     * Stores the email in the outbox as part of the current transaction. It is
+     * sent by {@link EmailOutboxDispatcher} once the transaction commits, and
+     * never if it rolls back.
+     */
+    @Transactional
     public void sendEmail(String to, String subject, String body) {
-        try{
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailFrom);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            emailSender.send(message);
-        } 
-        catch (MailException e){
-        	throw new EmailException("Failed to send email");
-        } 
+        outboxRepository.save(new EmailOutbox(to, subject, body, Instant.now()));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
     }
 }
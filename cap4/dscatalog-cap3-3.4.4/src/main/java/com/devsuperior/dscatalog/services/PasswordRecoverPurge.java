@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+
+/**
+ * Deletes expired password recovery tokens in batches, one transaction per
+ * batch, so a large backlog never holds long locks.
+ */
+@Component
+public class PasswordRecoverPurge {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordRecoverPurge.class);
+
+	@Value("${email.password-recover.purge-batch-size}")
+	private Integer batchSize;
+
+	@Autowired
+	private PasswordRecoverRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Scheduled(fixedDelayString = "${email.password-recover.purge-interval}")
+	public void scheduledPurge() {
+		int deleted = purgeExpired(Instant.now());
+		if (deleted > 0) {
+			logger.info("Purged {} expired password recovery tokens", deleted);
+		}
+	}
+
+	/**
+	 * @return number of tokens deleted
+	 */
+	public int purgeExpired(Instant now) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		int total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> {
+				List<Long> ids = repository.searchExpiredIds(now, Limit.of(batchSize));
+				repository.deleteAllByIdInBatch(ids);
+				return ids.size();
+			});
+			total += deleted;
+		} while (deleted == batchSize);
+		return total;
+	}
+}
@@ -0,0 +1,133 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Number of products, in total and per category, kept in memory.
+ * <p>
+ * {@link ProductService} and {@link ProductTransferService} report each
+ * insert, category change and delete, applied when its transaction commits. A change that races with
+ * {@link #reconcile()} may be lost or counted twice, so the counters are
+ * recounted from the database every {@code products.count.reconcile-interval}.
+ * The first count runs when the application is ready, or on the first read if
+ * that comes earlier.
+ */
+@Component
+public class ProductCounter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductCounter.class);
+
+	private final LongAdder total = new LongAdder();
+	private final Map<Long, LongAdder> categories = new ConcurrentHashMap<>();
+
+	private volatile boolean ready = false;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${products.count.reconcile-interval}", fixedDelayString = "${products.count.reconcile-interval}")
+	public synchronized void reconcile() {
+		long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+		Map<Long, Long> counts = new HashMap<>();
+		jdbcTemplate.query("SELECT category_id, COUNT(*) AS products FROM tb_product_category GROUP BY category_id",
+				(RowCallbackHandler) rs -> counts.put(rs.getLong("category_id"), rs.getLong("products")));
+
+		long drift = count - total.sum();
+		total.add(drift);
+		for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+			LongAdder adder = adder(entry.getKey());
+			adder.add(entry.getValue() - adder.sum());
+		}
+		categories.keySet().retainAll(counts.keySet());
+		if (ready && drift != 0) {
+			logger.info("Product count corrected by {}", drift);
+		}
+		ready = true;
+	}
+
+	public long total() {
+		loaded();
+		return total.sum();
+	}
+
+	public long byCategory(Long categoryId) {
+		loaded();
+		LongAdder adder = categories.get(categoryId);
+		return (adder != null) ? adder.sum() : 0L;
+	}
+
+	public Map<Long, Long> byCategory() {
+		loaded();
+		Map<Long, Long> result = new HashMap<>();
+		categories.forEach((id, adder) -> result.put(id, adder.sum()));
+		return result;
+	}
+
+	public void inserted(Collection<Long> categoryIds) {
+		afterCommit(() -> {
+			total.increment();
+			categoryIds.forEach(id -> adder(id).increment());
+		});
+	}
+
+	public void categoriesChanged(Collection<Long> before, Collection<Long> after) {
+		Set<Long> removed = new HashSet<>(before);
+		removed.removeAll(after);
+		Set<Long> added = new HashSet<>(after);
+		added.removeAll(before);
+		afterCommit(() -> {
+			removed.forEach(id -> adder(id).decrement());
+			added.forEach(id -> adder(id).increment());
+		});
+	}
+
+	public void deleted(Collection<Long> categoryIds) {
+		afterCommit(() -> {
+			total.decrement();
+			categoryIds.forEach(id -> adder(id).decrement());
+		});
+	}
+
+	private void loaded() {
+		if (!ready) {
+			reconcile();
+		}
+	}
+
+	private LongAdder adder(Long categoryId) {
+		return categories.computeIfAbsent(categoryId, id -> new LongAdder());
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		}
+		else {
+			action.run();
+		}
+	}
+}
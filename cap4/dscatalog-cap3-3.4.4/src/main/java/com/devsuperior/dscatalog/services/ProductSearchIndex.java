@@ -0,0 +1,423 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.ProductListingRepository;
+
+/**
+ * In-memory read model for the product listing filtered by category and name.
+ * <p>
+ * Each category keeps a bitmap of its product ids and each name trigram keeps
+ * a bitmap of the products whose name contains it, so a search is a few bitmap
+ * unions and intersections followed by a check of the remaining names. The
+ * model is built in background when the application starts and is kept
+ * current by {@link ProductService} and {@link CategoryService}. While it is
+ * warming, {@link #search(String, List, Pageable)} returns empty so the caller
+ * can fall back to the database. Bitmaps hold {@code int} ids, so a product
+ * id above {@link Integer#MAX_VALUE} turns the model off until the next
+ * rebuild.
+ * <p>
+ * Like {@link ProductListingRepository}, only products with a category are
+ * listed, sorting is limited to id, name, price and date, and id is always the
+ * last tie-breaker.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private static final int GRAM_SIZE = 3;
+	private static final int WARMUP_PAGE_SIZE = 1000;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Integer, Document> documents = new HashMap<>();
+	private final Map<Long, BitSet> categories = new HashMap<>();
+	private final Map<String, BitSet> grams = new HashMap<>();
+	private final BitSet listed = new BitSet();
+	private final Set<Integer> touchedWhileWarming = new HashSet<>();
+
+	private volatile boolean ready = false;
+	private boolean outOfRange = false;
+
+	@Autowired
+	private ProductListingRepository listingRepository;
+
+	@Autowired
+	private TaskExecutor taskExecutor;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		taskExecutor.execute(this::rebuild);
+	}
+
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			ready = false;
+			outOfRange = false;
+			touchedWhileWarming.clear();
+			documents.clear();
+			categories.clear();
+			grams.clear();
+			listed.clear();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		try {
+			List<ProductDTO> page;
+			long lastId = 0L;
+			do {
+				page = listingRepository.scan(lastId, WARMUP_PAGE_SIZE);
+				for (ProductDTO product : page) {
+					if (!fits(product.getId())) {
+						throw new IllegalStateException("Product id " + product.getId() + " does not fit the search index");
+					}
+					load(Document.of(product));
+					lastId = product.getId();
+				}
+			} while (page.size() == WARMUP_PAGE_SIZE);
+			lock.writeLock().lock();
+			try {
+				ready = !outOfRange;
+				touchedWhileWarming.clear();
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+			logger.info("Product search index ready with {} products", documents.size());
+		}
+		catch (RuntimeException e) {
+			logger.error("Failed to build product search index, listings will use the database", e);
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Registers the product as it will be after the current transaction
+	 * commits. {@code product} must carry all of its categories.
+	 */
+	public void index(ProductDTO product) {
+		if (!fits(product.getId())) {
+			afterCommit(() -> disable(product.getId()));
+			return;
+		}
+		Document document = Document.of(product);
+		afterCommit(() -> put(document));
+	}
+
+	public void remove(Long id) {
+		if (!fits(id)) {
+			// never indexed
+			return;
+		}
+		int key = key(id);
+		afterCommit(() -> delete(key));
+	}
+
+	public void renameCategory(Long id, String name) {
+		afterCommit(() -> rename(id, name));
+	}
+
+	/**
+	 * Products with any of {@code categoryIds} (any category when empty) whose
+	 * name contains {@code name}, ignoring case.
+	 */
+	public Optional<Page<ProductDTO>> search(String name, List<Long> categoryIds, Pageable pageable) {
+		if (!ready) {
+			return Optional.empty();
+		}
+		String query = normalize(name);
+		List<Document> matches = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			BitSet candidates = candidates(query, categoryIds);
+			for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+				Document document = documents.get(id);
+				if (document != null && document.name().contains(query)) {
+					matches.add(document);
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		Comparator<Document> comparator = comparatorFor(pageable.getSort());
+		List<ProductDTO> content = new ArrayList<>();
+		if (pageable.isPaged()) {
+			long from = Math.min(pageable.getOffset(), matches.size());
+			long to = Math.min(from + pageable.getPageSize(), matches.size());
+			for (Document document : firstSorted(matches, comparator, to).subList((int) from, (int) to)) {
+				content.add(document.product());
+			}
+		}
+		else {
+			matches.sort(comparator);
+			matches.forEach(x -> content.add(x.product()));
+		}
+		return Optional.of(new PageImpl<>(content, pageable, matches.size()));
+	}
+
+	/**
+	 * The first {@code limit} documents in order, keeping a bounded heap
+	 * instead of sorting every match.
+	 */
+	private static List<Document> firstSorted(List<Document> documents, Comparator<Document> comparator, long limit) {
+		if (limit >= documents.size()) {
+			documents.sort(comparator);
+			return documents;
+		}
+		PriorityQueue<Document> heap = new PriorityQueue<>((int) limit + 1, comparator.reversed());
+		for (Document document : documents) {
+			if (heap.size() < limit) {
+				heap.add(document);
+			}
+			else if (comparator.compare(document, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(document);
+			}
+		}
+		List<Document> result = new ArrayList<>(heap);
+		result.sort(comparator);
+		return result;
+	}
+
+	private BitSet candidates(String query, List<Long> categoryIds) {
+		BitSet result;
+		if (categoryIds.isEmpty()) {
+			result = (BitSet) listed.clone();
+		}
+		else {
+			result = new BitSet();
+			for (Long categoryId : categoryIds) {
+				BitSet ids = categories.get(categoryId);
+				if (ids != null) {
+					result.or(ids);
+				}
+			}
+		}
+		for (String gram : trigrams(query)) {
+			if (result.isEmpty()) {
+				break;
+			}
+			BitSet ids = grams.get(gram);
+			if (ids == null) {
+				return new BitSet();
+			}
+			result.and(ids);
+		}
+		return result;
+	}
+
+	private void load(Document document) {
+		lock.writeLock().lock();
+		try {
+			if (!touchedWhileWarming.contains(document.id())) {
+				link(document);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void put(Document document) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				touchedWhileWarming.add(document.id());
+			}
+			link(document);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void delete(int id) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				touchedWhileWarming.add(id);
+			}
+			Document previous = documents.remove(id);
+			if (previous != null) {
+				unlink(previous);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void disable(Long id) {
+		lock.writeLock().lock();
+		try {
+			ready = false;
+			outOfRange = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		logger.warn("Product id {} does not fit the search index, listings will use the database", id);
+	}
+
+	private void rename(Long categoryId, String name) {
+		lock.writeLock().lock();
+		try {
+			BitSet ids = categories.get(categoryId);
+			if (ids == null) {
+				return;
+			}
+			// listed products are never changed in place, they may be in use by a reader
+			for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+				Document document = documents.get(id);
+				ProductDTO old = document.product();
+				ProductDTO renamed = new ProductDTO(old.getId(), old.getName(), old.getDescription(), old.getPrice(), old.getImgUrl(), old.getDate());
+				for (CategoryDTO category : old.getCategories()) {
+					renamed.getCategories().add(category.getId().equals(categoryId) ? new CategoryDTO(categoryId, name) : category);
+				}
+				documents.put(id, new Document(id, renamed, document.name()));
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void link(Document document) {
+		Document previous = documents.put(document.id(), document);
+		if (previous != null) {
+			unlink(previous);
+		}
+		List<CategoryDTO> productCategories = document.product().getCategories();
+		if (productCategories.isEmpty()) {
+			return;
+		}
+		listed.set(document.id());
+		for (CategoryDTO category : productCategories) {
+			categories.computeIfAbsent(category.getId(), x -> new BitSet()).set(document.id());
+		}
+		for (String gram : trigrams(document.name())) {
+			grams.computeIfAbsent(gram, x -> new BitSet()).set(document.id());
+		}
+	}
+
+	private void unlink(Document document) {
+		listed.clear(document.id());
+		for (CategoryDTO category : document.product().getCategories()) {
+			clear(categories, category.getId(), document.id());
+		}
+		for (String gram : trigrams(document.name())) {
+			clear(grams, gram, document.id());
+		}
+	}
+
+	private static <K> void clear(Map<K, BitSet> postings, K key, int id) {
+		BitSet ids = postings.get(key);
+		if (ids != null) {
+			ids.clear(id);
+			if (ids.isEmpty()) {
+				postings.remove(key);
+			}
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		}
+		else {
+			action.run();
+		}
+	}
+
+	private static Comparator<Document> comparatorFor(Sort sort) {
+		Comparator<Document> result = null;
+		for (Sort.Order order : sort) {
+			Comparator<Document> next = switch (order.getProperty()) {
+				case "name" -> Comparator.comparing(x -> x.product().getName(), Comparator.nullsLast(Comparator.naturalOrder()));
+				case "price" -> Comparator.comparing(x -> x.product().getPrice(), Comparator.nullsLast(Comparator.naturalOrder()));
+				case "date" -> Comparator.comparing(x -> x.product().getDate(), Comparator.nullsLast(Comparator.naturalOrder()));
+				default -> null;
+			};
+			if (next == null) {
+				continue;
+			}
+			if (order.isDescending()) {
+				next = next.reversed();
+			}
+			result = (result == null) ? next : result.thenComparing(next);
+		}
+		Sort.Order orderById = sort.getOrderFor("id");
+		Comparator<Document> byId = Comparator.comparingInt(Document::id);
+		if (orderById != null && orderById.isDescending()) {
+			byId = byId.reversed();
+		}
+		return (result == null) ? byId : result.thenComparing(byId);
+	}
+
+	private static boolean fits(Long id) {
+		return id <= Integer.MAX_VALUE;
+	}
+
+	private static int key(Long id) {
+		return id.intValue();
+	}
+
+	private static String normalize(String text) {
+		return (text == null) ? "" : text.toLowerCase(Locale.ROOT);
+	}
+
+	private static Set<String> trigrams(String text) {
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+			result.add(text.substring(i, i + GRAM_SIZE));
+		}
+		return result;
+	}
+
+	private record Document(int id, ProductDTO product, String name) {
+
+		static Document of(ProductDTO product) {
+			return new Document(key(product.getId()), product, normalize(product.getName()));
+		}
+	}
+}
@@ -1,12 +1,17 @@
 package com.devsuperior.dscatalog.services;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
-import com.devsuperior.dscatalog.projections.ProductProjection;
-import com.devsuperior.dscatalog.util.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -15,11 +20,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductListingRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -34,6 +41,18 @@ public class ProductService {
 	
 	@Autowired
 	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductListingRepository listingRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ProductCounter counter;
 	
 //	@Transactional(readOnly = true)
 //	public Page<ProductDTO> findAllPaged(Pageable pageable) {
@@ -44,28 +63,29 @@ public class ProductService {
 
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAllPaged(String name, String categoryId, Pageable pageable) {
-//		String[] vet = categoryId.split(",");
-//		List<String> list = Arrays.asList(vet);
-		//List<Long> categoryIds = Arrays.asList();
-		List<Long> categoryIds = List.of();
-		if (!"0".equals(categoryId)) {
-
-			// categoryIds = Arrays.asList(categoryId.split(",")).stream().map(x -> Long.parseLong(x)).toList();
-			categoryIds = Arrays.stream(categoryId.split(",")).map(Long::parseLong).toList();
+		List<Long> categoryIds = "0".equals(categoryId) ? List.of()
+				: Arrays.stream(categoryId.split(",")).map(Long::parseLong).sorted().distinct().toList();
+		return searchIndex.search(name, categoryIds, pageable)
+				.orElseGet(() -> findAllPagedFromDatabase(name, categoryIds, pageable));
+	}
 
+	/**
+	 * One statement per page. The total is counted with the page and then kept
+	 * per filter in {@link CacheConfig#PRODUCT_TOTALS}, so following pages skip
+	 * the count until a product changes or the entry expires.
+	 */
+	private Page<ProductDTO> findAllPagedFromDatabase(String name, List<Long> categoryIds, Pageable pageable) {
+		Cache totals = cacheManager.getCache(CacheConfig.PRODUCT_TOTALS);
+		String totalKey = name.toLowerCase(Locale.ROOT) + ":" + categoryIds;
+		Long total = totals.get(totalKey, Long.class);
+
+		ProductListingRepository.Listing listing = listingRepository.search(categoryIds, name, pageable, total == null);
+		if (total == null) {
+			// a page past the end has no rows to carry the count
+			total = (listing.total() != null) ? listing.total() : listingRepository.count(categoryIds, name);
+			totals.put(totalKey, total);
 		}
-		Page<ProductProjection> page = repository.searchProducts(categoryIds, name, pageable);
-		// List<Long> productIds = page.map(x -> x.getId()).toList();
-		List<Long> productIds = page.map(ProductProjection::getId).toList();
-
-		List<Product> entities = repository.searchProductsWithCategories(productIds);
-		entities = (List<Product>) Utils.replace(page.getContent(), entities);
-
-		List<ProductDTO> dtos = entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
-
-//		Page<ProductDTO> pageDto = new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
-
-		return new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+		return new PageImpl<>(listing.content(), pageable, total);
 	}
 
 	@Transactional(readOnly = true)
@@ -75,25 +95,39 @@ public class ProductService {
 		return new ProductDTO(entity, entity.getCategories());
 	}
 
-	@Transactional
 	public Long count() {
-		return repository.count();
+		return counter.total();
+	}
+
+	public Long countByCategory(Long categoryId) {
+		return counter.byCategory(categoryId);
+	}
+
+	public Map<Long, Long> countByCategories() {
+		return counter.byCategory();
 	}
 
+	@CacheEvict(cacheNames = CacheConfig.PRODUCT_TOTALS, allEntries = true)
 	@Transactional
 	public ProductDTO insert(ProductDTO dto) {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		searchIndex.index(new ProductDTO(entity, entity.getCategories()));
+		counter.inserted(categoryIds(entity));
 		return new ProductDTO(entity);
 	}
 
+	@CacheEvict(cacheNames = CacheConfig.PRODUCT_TOTALS, allEntries = true)
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
 		try {
 			Product entity = repository.getReferenceById(id);
+			List<Long> before = categoryIds(entity);
 			copyDtoToEntity(dto, entity);
 			entity = repository.save(entity);
+			searchIndex.index(new ProductDTO(entity, entity.getCategories()));
+			counter.categoriesChanged(before, categoryIds(entity));
 			return new ProductDTO(entity);
 		}
 		catch (EntityNotFoundException e) {
@@ -101,19 +135,27 @@ public class ProductService {
 		}		
 	}
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_TOTALS, allEntries = true)
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
     	if (!repository.existsById(id)) {
     		throw new ResourceNotFoundException("Recurso não encontrado");
     	}
     	try {
-            repository.deleteById(id);    		
+            List<Long> categoryIds = repository.findCategoryIds(id);
+            repository.deleteById(id);
+            searchIndex.remove(id);
+            counter.deleted(categoryIds);
     	}
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
         }
     }
 	
+	private static List<Long> categoryIds(Product entity) {
+		return entity.getCategories().stream().map(Category::getId).toList();
+	}
+
 	private void copyDtoToEntity(ProductDTO dto, Product entity) {
 
 		entity.setName(dto.getName());
@@ -121,11 +163,19 @@ public class ProductService {
 		entity.setDate(dto.getDate());
 		entity.setImgUrl(dto.getImgUrl());
 		entity.setPrice(dto.getPrice());
-		
-		entity.getCategories().clear();
+
+		// only the categories that changed are touched, so the flush deletes and
+		// inserts the delta of tb_product_category instead of every row
+		Set<Long> categoryIds = new HashSet<>();
 		for (CategoryDTO catDto : dto.getCategories()) {
-			Category category = categoryRepository.getReferenceById(catDto.getId());
-			entity.getCategories().add(category);			
+			categoryIds.add(catDto.getId());
+		}
+		entity.getCategories().removeIf(category -> !categoryIds.contains(category.getId()));
+		for (Category category : entity.getCategories()) {
+			categoryIds.remove(category.getId());
+		}
+		for (Long categoryId : categoryIds) {
+			entity.getCategories().add(categoryRepository.getReferenceById(categoryId));
 		}
 	}	
 }
@@ -0,0 +1,320 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.config.CacheConfig;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportDTO;
+import com.devsuperior.dscatalog.dto.RowErrorDTO;
+import com.devsuperior.dscatalog.repositories.ProductTransferRepository;
+import com.devsuperior.dscatalog.util.Csv;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streaming import and export of the whole catalog as NDJSON or CSV.
+ * <p>
+ * The import reads {@code products.import.batch-size} lines at a time, parses
+ * and validates them in parallel, checks their categories with one query and
+ * writes them with JDBC batches in one transaction per chunk. Rows without id
+ * are inserted; rows with an id replace that product and its categories. An
+ * id repeated in a chunk is rejected after its first row. When the database
+ * refuses a chunk, its rows are written again one per transaction, so only
+ * the rows it refuses are rejected.
+ * The export streams the catalog from the database {@code products.export.fetch-size}
+ * rows at a time. Both hold one chunk at most, whatever the catalog size.
+ * <p>
+ * CSV files have the columns id, name, description, price, imgUrl, date and
+ * categories, the last one holding category ids separated by {@code ;}. A
+ * quoted description keeps its line breaks, and the row is reported by the
+ * line it starts on.
+ */
+@Service
+public class ProductTransferService {
+
+	private static final String[] FIELDS = { "id", "name", "description", "price", "imgUrl", "date", "categories" };
+
+	private record Line(long number, String text) {
+	}
+
+	private record Parsed(long line, ProductDTO product, List<RowErrorDTO> errors) {
+	}
+
+	@Value("${products.import.batch-size}")
+	private Integer batchSize;
+
+	@Value("${products.import.max-errors}")
+	private Integer maxErrors;
+
+	@Value("${products.export.fetch-size}")
+	private Integer fetchSize;
+
+	@Autowired
+	private ProductTransferRepository repository;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ProductCounter counter;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@CacheEvict(cacheNames = CacheConfig.PRODUCT_TOTALS, allEntries = true)
+	public ProductImportDTO importProducts(InputStream input, DataFormat format) throws IOException {
+		ProductImportDTO result = new ProductImportDTO(maxErrors);
+		Csv.RecordReader records = new Csv.RecordReader(
+				new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format == DataFormat.CSV);
+		Map<String, Integer> columns = null;
+		List<Line> chunk = new ArrayList<>(batchSize);
+		String text;
+		while ((text = records.next()) != null) {
+			if (text.isBlank()) {
+				continue;
+			}
+			if (format == DataFormat.CSV && columns == null) {
+				columns = Csv.columns(Csv.split(text), FIELDS);
+				continue;
+			}
+			chunk.add(new Line(records.lineNumber(), text));
+			if (chunk.size() == batchSize) {
+				importChunk(chunk, format, columns, result);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, format, columns, result);
+		}
+		return result;
+	}
+
+	public void exportProducts(DataFormat format, OutputStream output) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		if (format == DataFormat.CSV) {
+			writer.write(String.join(",", FIELDS) + "\n");
+		}
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		try {
+			transactionTemplate.executeWithoutResult(status -> repository.export(fetchSize, product -> {
+				try {
+					writer.write((format == DataFormat.CSV) ? toCsv(product) : objectMapper.writeValueAsString(product));
+					writer.write('\n');
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}));
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+	}
+
+	private void importChunk(List<Line> chunk, DataFormat format, Map<String, Integer> columns, ProductImportDTO result) {
+		List<Parsed> rows = chunk.parallelStream().map(line -> parse(line, format, columns)).toList();
+
+		Set<Long> categoryIds = new HashSet<>();
+		for (Parsed row : rows) {
+			if (row.errors().isEmpty()) {
+				row.product().getCategories().forEach(category -> categoryIds.add(category.getId()));
+			}
+		}
+		Map<Long, String> categoryNames = repository.findCategoryNames(categoryIds);
+
+		List<Parsed> inserts = new ArrayList<>();
+		List<Parsed> updates = new ArrayList<>();
+		Set<Long> ids = new HashSet<>();
+		for (Parsed row : rows) {
+			if (row.errors().isEmpty()) {
+				resolveCategories(row, categoryNames);
+			}
+			if (!row.errors().isEmpty()) {
+				result.reject(row.errors());
+			}
+			else if (row.product().getId() == null) {
+				inserts.add(row);
+			}
+			else if (!ids.add(row.product().getId())) {
+				result.reject(List.of(new RowErrorDTO(row.line(), "id", "Id repetido no arquivo")));
+			}
+			else {
+				updates.add(row);
+			}
+		}
+
+		try {
+			write(inserts, updates, result);
+		}
+		catch (DataIntegrityViolationException e) {
+			for (Parsed row : inserts) {
+				// the id of the rolled back insert
+				row.product().setId(null);
+				writeRow(List.of(row), List.of(), result);
+			}
+			for (Parsed row : updates) {
+				writeRow(List.of(), List.of(row), result);
+			}
+		}
+	}
+
+	private void writeRow(List<Parsed> inserts, List<Parsed> updates, ProductImportDTO result) {
+		try {
+			write(inserts, updates, result);
+		}
+		catch (DataIntegrityViolationException e) {
+			Parsed row = inserts.isEmpty() ? updates.get(0) : inserts.get(0);
+			result.reject(List.of(new RowErrorDTO(row.line(), "line", "Linha recusada pelo banco de dados")));
+		}
+	}
+
+	/**
+	 * Writes the rows in one transaction and counts them in {@code result}
+	 * once it commits.
+	 */
+	private void write(List<Parsed> inserts, List<Parsed> updates, ProductImportDTO result) {
+		List<Parsed> missing = new ArrayList<>();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			List<ProductDTO> written = new ArrayList<>(inserts.size() + updates.size());
+			List<ProductDTO> inserted = inserts.stream().map(Parsed::product).toList();
+			repository.insert(inserted);
+			written.addAll(inserted);
+
+			inserted.forEach(product -> counter.inserted(categoryIds(product)));
+
+			List<ProductDTO> updated = updates.stream().map(Parsed::product).toList();
+			Map<Long, List<Long>> before = repository.findCategoryIds(updated.stream().map(ProductDTO::getId).toList());
+			int[] counts = repository.update(updated);
+			for (int i = 0; i < counts.length; i++) {
+				Parsed row = updates.get(i);
+				if (counts[i] == 0) {
+					missing.add(row);
+				}
+				else {
+					written.add(row.product());
+					counter.categoriesChanged(before.getOrDefault(row.product().getId(), List.of()), categoryIds(row.product()));
+				}
+			}
+			repository.replaceCategories(written);
+			written.forEach(searchIndex::index);
+		});
+		for (Parsed row : missing) {
+			result.reject(List.of(new RowErrorDTO(row.line(), "id", "Id not found " + row.product().getId())));
+		}
+		result.addInserted(inserts.size());
+		result.addUpdated(updates.size() - missing.size());
+	}
+
+	private Parsed parse(Line line, DataFormat format, Map<String, Integer> columns) {
+		List<RowErrorDTO> errors = new ArrayList<>();
+		ProductDTO product;
+		try {
+			product = (format == DataFormat.NDJSON) ? objectMapper.readValue(line.text(), ProductDTO.class) : fromCsv(columns, line.text());
+		}
+		catch (JacksonException | IllegalArgumentException | DateTimeParseException e) {
+			errors.add(new RowErrorDTO(line.number(), "line", "Linha inválida"));
+			return new Parsed(line.number(), null, errors);
+		}
+		for (ConstraintViolation<ProductDTO> violation : validator.validate(product)) {
+			errors.add(new RowErrorDTO(line.number(), violation.getPropertyPath().toString(), violation.getMessage()));
+		}
+		return new Parsed(line.number(), product, errors);
+	}
+
+	/**
+	 * Replaces the categories of the row by the stored ones, so the search
+	 * index gets their names.
+	 */
+	private static void resolveCategories(Parsed row, Map<Long, String> categoryNames) {
+		List<CategoryDTO> categories = new ArrayList<>();
+		Set<Long> seen = new HashSet<>();
+		for (CategoryDTO category : row.product().getCategories()) {
+			String name = categoryNames.get(category.getId());
+			if (name == null) {
+				row.errors().add(new RowErrorDTO(row.line(), "categories", "Categoria não encontrada " + category.getId()));
+			}
+			else if (seen.add(category.getId())) {
+				categories.add(new CategoryDTO(category.getId(), name));
+			}
+		}
+		row.product().setCategories(categories);
+	}
+
+	private static ProductDTO fromCsv(Map<String, Integer> columns, String text) {
+		List<String> values = Csv.split(text);
+		String id = Csv.get(values, columns, "id");
+		String price = Csv.get(values, columns, "price");
+		String date = Csv.get(values, columns, "date");
+		String imgUrl = Csv.get(values, columns, "imgUrl");
+		ProductDTO product = new ProductDTO(isEmpty(id) ? null : Long.valueOf(id.trim()),
+				Csv.get(values, columns, "name"), Csv.get(values, columns, "description"),
+				isEmpty(price) ? null : Double.valueOf(price.trim()), isEmpty(imgUrl) ? null : imgUrl,
+				isEmpty(date) ? null : Instant.parse(date.trim()));
+		String categories = Csv.get(values, columns, "categories");
+		if (!isEmpty(categories)) {
+			for (String categoryId : categories.split(";")) {
+				product.getCategories().add(new CategoryDTO(Long.valueOf(categoryId.trim()), null));
+			}
+		}
+		return product;
+	}
+
+	private static String toCsv(ProductDTO product) {
+		StringJoiner categories = new StringJoiner(";");
+		product.getCategories().forEach(category -> categories.add(category.getId().toString()));
+		StringBuilder line = new StringBuilder();
+		Csv.append(line, product.getId()).append(',');
+		Csv.append(line, product.getName()).append(',');
+		Csv.append(line, product.getDescription()).append(',');
+		Csv.append(line, product.getPrice()).append(',');
+		Csv.append(line, product.getImgUrl()).append(',');
+		Csv.append(line, product.getDate()).append(',');
+		Csv.append(line, categories);
+		return line.toString();
+	}
+
+	private static List<Long> categoryIds(ProductDTO product) {
+		return product.getCategories().stream().map(CategoryDTO::getId).toList();
+	}
+
+	private static boolean isEmpty(String value) {
+		return value == null || value.isBlank();
+	}
+}
@@ -0,0 +1,106 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.repositories.RoleRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * All rows of {@code tb_role}, read once at startup into immutable maps.
+ * <p>
+ * Lookups never query the database while the role is known. A lookup of an
+ * unknown id or authority reloads the table, at most once per
+ * {@code roles.refresh-min-interval}, so a role added to the database is seen
+ * without a restart and unknown ids sent by clients cannot turn every request
+ * into a query. {@link #refresh()} reloads right away.
+ * <p>
+ * {@link Role} is a mutable entity, so every lookup returns a new instance.
+ */
+@Component
+public class RoleRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+	private record Roles(Map<Long, String> authorities, Map<String, Long> ids,
+			Map<String, GrantedAuthority> grantedAuthorities, long loadedAt) {
+	}
+
+	@Value("${roles.refresh-min-interval}")
+	private Duration refreshMinInterval;
+
+	@Autowired
+	private RoleRepository repository;
+
+	private volatile Roles roles;
+
+	@PostConstruct
+	public synchronized void refresh() {
+		List<Role> list = repository.findAll();
+		Map<Long, String> authorities = new HashMap<>();
+		Map<String, Long> ids = new HashMap<>();
+		Map<String, GrantedAuthority> grantedAuthorities = new HashMap<>();
+		for (Role role : list) {
+			authorities.put(role.getId(), role.getAuthority());
+			ids.put(role.getAuthority(), role.getId());
+			grantedAuthorities.put(role.getAuthority(), new SimpleGrantedAuthority(role.getAuthority()));
+		}
+		roles = new Roles(Map.copyOf(authorities), Map.copyOf(ids), Map.copyOf(grantedAuthorities), System.nanoTime());
+		logger.debug("Loaded {} roles", list.size());
+	}
+
+	public Optional<Role> findById(Long id) {
+		if (id == null) {
+			return Optional.empty();
+		}
+		String authority = roles.authorities().get(id);
+		if (authority == null) {
+			authority = afterMiss().authorities().get(id);
+		}
+		return Optional.ofNullable(authority).map(x -> new Role(id, x));
+	}
+
+	public Optional<Role> findByAuthority(String authority) {
+		if (authority == null) {
+			return Optional.empty();
+		}
+		Long id = roles.ids().get(authority);
+		if (id == null) {
+			id = afterMiss().ids().get(authority);
+		}
+		return Optional.ofNullable(id).map(x -> new Role(x, authority));
+	}
+
+	/**
+	 * Shared authority for a JWT claim value. Names that are not roles, such
+	 * as scopes, get a new instance and do not trigger a reload.
+	 */
+	public GrantedAuthority grantedAuthority(String authority) {
+		GrantedAuthority result = (authority != null) ? roles.grantedAuthorities().get(authority) : null;
+		return (result != null) ? result : new SimpleGrantedAuthority(authority);
+	}
+
+	/**
+	 * @return the roles, reloaded unless they were loaded less than the
+	 *         minimum interval ago
+	 */
+	private synchronized Roles afterMiss() {
+		if (System.nanoTime() - roles.loadedAt() >= refreshMinInterval.toNanos()) {
+			refresh();
+		}
+		return roles;
+	}
+}
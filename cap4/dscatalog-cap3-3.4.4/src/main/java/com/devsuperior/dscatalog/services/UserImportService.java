@@ -0,0 +1,269 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.config.BoundedPasswordEncoder;
+import com.devsuperior.dscatalog.dto.RowErrorDTO;
+import com.devsuperior.dscatalog.dto.UserImportDTO;
+import com.devsuperior.dscatalog.dto.UserInsertDTO;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.util.Csv;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports operators from an NDJSON or CSV stream without loading the file.
+ * <p>
+ * Rows are read in batches of {@code users.import.batch-size}. Each batch
+ * checks its emails with one {@code IN} query, hashes the passwords in
+ * parallel on the password encoder pool and is written with JDBC batch
+ * inserts in its own transaction; a batch the database refuses is written
+ * again row by row. A row that fails validation or that the database refuses
+ * is counted as rejected and skipped; the rest of the file is still imported.
+ * The first {@code users.import.max-errors} rejected rows are reported with
+ * their line number.
+ */
+@Service
+public class UserImportService {
+
+	private static final String[] FIELDS = { "firstName", "lastName", "email", "password" };
+
+	private record Row(long line, UserInsertDTO dto) {
+	}
+
+	private record Hash(Row row, Future<String> password) {
+	}
+
+	@Value("${users.import.batch-size}")
+	private Integer batchSize;
+
+	@Value("${users.import.max-errors}")
+	private Integer maxErrors;
+
+	@Autowired
+	private UserRepository repository;
+
+	@Autowired
+	private RoleRegistry roleRegistry;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * CSV files start with a header naming the columns firstName, lastName,
+	 * email and password, in any order.
+	 */
+	public UserImportDTO importUsers(InputStream input, DataFormat format) throws IOException {
+		UserImportDTO result = new UserImportDTO(maxErrors);
+		Long roleId = roleRegistry.findByAuthority("ROLE_OPERATOR")
+				.orElseThrow(() -> new ResourceNotFoundException("Role not found ROLE_OPERATOR")).getId();
+		// emails of the file already accepted, to reject repeated rows
+		Set<String> emails = new HashSet<>();
+		List<Row> batch = new ArrayList<>(batchSize);
+
+		Csv.RecordReader records = new Csv.RecordReader(
+				new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format == DataFormat.CSV);
+		Map<String, Integer> columns = null;
+		String line;
+		while ((line = records.next()) != null) {
+			long lineNumber = records.lineNumber();
+			if (line.isBlank()) {
+				continue;
+			}
+			if (format == DataFormat.CSV && columns == null) {
+				columns = Csv.columns(Csv.split(line), FIELDS);
+				continue;
+			}
+
+			UserInsertDTO dto;
+			try {
+				dto = (format == DataFormat.NDJSON) ? objectMapper.readValue(line, UserInsertDTO.class) : fromCsv(columns, line);
+			}
+			catch (JacksonException | IllegalArgumentException e) {
+				result.reject(List.of(new RowErrorDTO(lineNumber, "line", "Linha inválida")));
+				continue;
+			}
+
+			if (isValid(lineNumber, dto, emails, result)) {
+				batch.add(new Row(lineNumber, dto));
+				if (batch.size() == batchSize) {
+					insertBatch(batch, roleId, result);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			insertBatch(batch, roleId, result);
+		}
+		return result;
+	}
+
+	private boolean isValid(long line, UserInsertDTO dto, Set<String> emails, UserImportDTO result) {
+		// field constraints only: @UserInsertValid would query the email row by row
+		List<RowErrorDTO> errors = new ArrayList<>();
+		for (String field : FIELDS) {
+			for (ConstraintViolation<UserInsertDTO> violation : validator.validateProperty(dto, field)) {
+				errors.add(new RowErrorDTO(line, field, violation.getMessage()));
+			}
+		}
+		if (dto.getEmail() == null || dto.getEmail().isBlank()) {
+			errors.add(new RowErrorDTO(line, "email", "Campo obrigatório"));
+		}
+		else if (errors.isEmpty() && !emails.add(dto.getEmail())) {
+			errors.add(new RowErrorDTO(line, "email", "Email repetido no arquivo"));
+		}
+		if (!errors.isEmpty()) {
+			result.reject(errors);
+			return false;
+		}
+		return true;
+	}
+
+	private void insertBatch(List<Row> batch, Long roleId, UserImportDTO result) {
+		List<Row> rows = withoutExistingEmails(batch, result);
+
+		List<MapSqlParameterSource> hashed = hash(rows, result);
+
+		try {
+			result.addImported(write(hashed, roleId));
+		}
+		catch (DataIntegrityViolationException e) {
+			// another request created one of the emails after the lookup, or a row does not fit the table
+			for (MapSqlParameterSource user : hashed) {
+				writeRow(user, roleId, result);
+			}
+		}
+	}
+
+	private void writeRow(MapSqlParameterSource user, Long roleId, UserImportDTO result) {
+		try {
+			result.addImported(write(List.of(user), roleId));
+		}
+		catch (DataIntegrityViolationException e) {
+			Long line = (Long) user.getValue("line");
+			String email = (String) user.getValue("email");
+			if (repository.searchEmails(List.of(email)).isEmpty()) {
+				result.reject(List.of(new RowErrorDTO(line, "line", "Linha recusada pelo banco de dados")));
+			}
+			else {
+				result.reject(List.of(new RowErrorDTO(line, "email", "Email já existe")));
+			}
+		}
+	}
+
+	/**
+	 * Hashes the passwords on the password encoder pool. The import keeps at
+	 * most one hash per pool thread submitted, so logins still find room in
+	 * the pool queue, and waits for them on its own thread. A row whose hash
+	 * the pool rejects is reported and left out.
+	 */
+	private List<MapSqlParameterSource> hash(List<Row> rows, UserImportDTO result) {
+		List<MapSqlParameterSource> users = new ArrayList<>(rows.size());
+		if (!(passwordEncoder instanceof BoundedPasswordEncoder pool)) {
+			for (Row row : rows) {
+				users.add(user(row, passwordEncoder.encode(row.dto().getPassword())));
+			}
+			return users;
+		}
+		Deque<Hash> submitted = new ArrayDeque<>(pool.getThreads());
+		for (Row row : rows) {
+			if (submitted.size() == pool.getThreads()) {
+				Hash hash = submitted.poll();
+				users.add(user(hash.row(), BoundedPasswordEncoder.await(hash.password())));
+			}
+			try {
+				submitted.add(new Hash(row, pool.submitEncode(row.dto().getPassword())));
+			}
+			catch (RejectedExecutionException e) {
+				result.reject(List.of(new RowErrorDTO(row.line(), "password", "Servidor ocupado, tente novamente")));
+			}
+		}
+		for (Hash hash : submitted) {
+			users.add(user(hash.row(), BoundedPasswordEncoder.await(hash.password())));
+		}
+		return users;
+	}
+
+	private static MapSqlParameterSource user(Row row, String password) {
+		return new MapSqlParameterSource()
+				.addValue("line", row.line())
+				.addValue("firstName", row.dto().getFirstName())
+				.addValue("lastName", row.dto().getLastName())
+				.addValue("email", row.dto().getEmail())
+				.addValue("password", password);
+	}
+
+	private List<Row> withoutExistingEmails(List<Row> batch, UserImportDTO result) {
+		Set<String> existing = new HashSet<>(repository.searchEmails(batch.stream().map(row -> row.dto().getEmail()).toList()));
+		List<Row> rows = new ArrayList<>(batch.size());
+		for (Row row : batch) {
+			if (existing.contains(row.dto().getEmail())) {
+				result.reject(List.of(new RowErrorDTO(row.line(), "email", "Email já existe")));
+			}
+			else {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	private int write(List<MapSqlParameterSource> users, Long roleId) {
+		if (users.isEmpty()) {
+			return 0;
+		}
+		List<String> emails = users.stream().map(u -> (String) u.getValue("email")).toList();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.batchUpdate("INSERT INTO tb_user (first_name, last_name, email, password) "
+					+ "VALUES (:firstName, :lastName, :email, :password)", users.toArray(new MapSqlParameterSource[0]));
+			jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) "
+					+ "SELECT tb_user.id, :roleId FROM tb_user WHERE tb_user.email IN (:emails)",
+					new MapSqlParameterSource("roleId", roleId).addValue("emails", emails));
+		});
+		return users.size();
+	}
+
+	private static UserInsertDTO fromCsv(Map<String, Integer> columns, String line) {
+		List<String> values = Csv.split(line);
+		return new UserInsertDTO(Csv.get(values, columns, "firstName"), Csv.get(values, columns, "lastName"),
+				Csv.get(values, columns, "email"), Csv.get(values, columns, "password"));
+	}
+}
@@ -4,10 +4,14 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.RoleDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
@@ -22,7 +27,6 @@ import com.devsuperior.dscatalog.dto.UserUpdateDTO;
 import com.devsuperior.dscatalog.entities.Role;
 import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.projections.UserDetailsProjection;
-import com.devsuperior.dscatalog.repositories.RoleRepository;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -30,7 +34,7 @@ import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 	
 	@Autowired
 	private PasswordEncoder passwordEncoder;
@@ -39,7 +43,7 @@ public class UserService implements UserDetailsService {
 	private UserRepository repository;
 	
 	@Autowired
-	private RoleRepository roleRepository;
+	private RoleRegistry roleRegistry;
 
 	@Autowired
 	private AuthService authService;
@@ -68,8 +72,9 @@ public class UserService implements UserDetailsService {
 		User entity = new User();
 		copyDtoToEntity(dto, entity);
 
-		entity.getRoles().clear();
-		Role role = roleRepository.findByAuthority("ROLE_OPERATOR");
+		// signups are always operators, roles sent by the client are ignored
+		Role role = roleRegistry.findByAuthority("ROLE_OPERATOR")
+				.orElseThrow(() -> new ResourceNotFoundException("Role not found ROLE_OPERATOR"));
 		entity.getRoles().add(role);
 
 		entity.setPassword(passwordEncoder.encode(dto.getPassword()));
@@ -77,11 +82,13 @@ public class UserService implements UserDetailsService {
 		return new UserDTO(entity);
 	}
 
+	@CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
 	@Transactional
 	public UserDTO update(Long id, UserUpdateDTO dto) {
 		try {
 			User entity = repository.getReferenceById(id);
 			copyDtoToEntity(dto, entity);
+			copyRolesToEntity(dto, entity);
 			entity = repository.save(entity);
 			return new UserDTO(entity);
 		}
@@ -90,6 +97,7 @@ public class UserService implements UserDetailsService {
 		}		
 	}
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
     	if (!repository.existsById(id)) {
@@ -108,14 +116,19 @@ public class UserService implements UserDetailsService {
 		entity.setFirstName(dto.getFirstName());
 		entity.setLastName(dto.getLastName());
 		entity.setEmail(dto.getEmail());
-		
+	}
+
+	private void copyRolesToEntity(UserDTO dto, User entity) {
+
 		entity.getRoles().clear();
 		for (RoleDTO roleDto : dto.getRoles()) {
-			Role role = roleRepository.getReferenceById(roleDto.getId());
+			Role role = roleRegistry.findById(roleDto.getId())
+					.orElseThrow(() -> new ResourceNotFoundException("Role not found " + roleDto.getId()));
 			entity.getRoles().add(role);
 		}
 	}
 
+	@Cacheable(cacheNames = CacheConfig.USERS, key = "#username")
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		
@@ -128,9 +141,26 @@ public class UserService implements UserDetailsService {
 		user.setEmail(result.get(0).getUsername());
 		user.setPassword(result.get(0).getPassword());
 		for (UserDetailsProjection projection : result) {
-			user.addRole(new Role(projection.getRoleId(), projection.getAuthority()));
+			roleRegistry.findById(projection.getRoleId()).ifPresent(user::addRole);
 		}
 		
 		return user;
 	}
+
+	@CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.username")
+	@Transactional
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		User entity = repository.findByEmail(user.getUsername());
+		entity.setPassword(newPassword);
+		repository.save(entity);
+
+		User result = new User();
+		result.setEmail(user.getUsername());
+		result.setPassword(newPassword);
+		for (GrantedAuthority authority : user.getAuthorities()) {
+			roleRegistry.findByAuthority(authority.getAuthority()).ifPresent(result::addRole);
+		}
+		return result;
+	}
 }
@@ -0,0 +1,169 @@
+package com.devsuperior.dscatalog.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 records for the bulk import and export endpoints. Quoted fields may
+ * hold commas, doubled quotes and line breaks, so a file is read one record at
+ * a time with {@link RecordReader}.
+ */
+public final class Csv {
+
+    /** A record still open past this length is returned as is, and fails to split. */
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private Csv() {
+    }
+
+    /**
+     * Reads a file one record at a time, keeping the line breaks of quoted
+     * fields as they are in the input. When {@code multiline} is false every
+     * line is a record, as in NDJSON.
+     */
+    public static final class RecordReader {
+
+        private final BufferedReader reader;
+        private final boolean multiline;
+        private long lines;
+        private long start;
+
+        public RecordReader(BufferedReader reader, boolean multiline) {
+            this.reader = reader;
+            this.multiline = multiline;
+        }
+
+        /**
+         * @return the next record without its line break, or null at the end
+         *         of the input
+         */
+        public String next() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            start = lines + 1;
+            StringBuilder record = new StringBuilder();
+            boolean quoted = false;
+            while (c >= 0) {
+                if (c == '\r' || c == '\n') {
+                    boolean crlf = c == '\r' && nextIs('\n');
+                    lines++;
+                    if (!quoted || record.length() > MAX_RECORD_LENGTH) {
+                        return record.toString();
+                    }
+                    record.append(crlf ? "\r\n" : String.valueOf((char) c));
+                }
+                else {
+                    if (c == '"' && multiline) {
+                        quoted = !quoted;
+                    }
+                    record.append((char) c);
+                }
+                c = reader.read();
+            }
+            lines++;
+            return record.toString();
+        }
+
+        /**
+         * @return the line the last record started on, counting from 1
+         */
+        public long lineNumber() {
+            return start;
+        }
+
+        private boolean nextIs(char expected) throws IOException {
+            reader.mark(1);
+            if (reader.read() == expected) {
+                return true;
+            }
+            reader.reset();
+            return false;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when a quote is not closed
+     */
+    public static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                }
+                else if (c == '"') {
+                    quoted = false;
+                }
+                else {
+                    value.append(c);
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            }
+            else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Appends {@code value} to {@code line}, quoted when needed.
+     */
+    public static StringBuilder append(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Position of each of {@code names} in a header line, matched ignoring
+     * case and surrounding spaces. Names missing from the header are left out.
+     */
+    public static Map<String, Integer> columns(List<String> header, String... names) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            for (String name : names) {
+                if (name.toLowerCase(Locale.ROOT).equals(column)) {
+                    columns.put(name, i);
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @return the value of column {@code name}, or null when the file has no
+     *         such column or the line is shorter
+     */
+    public static String get(List<String> values, Map<String, Integer> columns, String name) {
+        Integer column = columns.get(name);
+        return (column != null && column < values.size()) ? values.get(column) : null;
+    }
+}
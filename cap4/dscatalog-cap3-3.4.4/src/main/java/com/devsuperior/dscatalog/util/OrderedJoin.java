@@ -0,0 +1,165 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.devsuperior.dscatalog.projections.IdProjection;
+
+/**
+ * Puts rows loaded by id back in the order of a previous query, usually a
+ * page of ids followed by a fetch of the full rows.
+ * <p>
+ * {@code Long} ids are matched through a primitive open-addressing table kept
+ * per thread, so a join allocates only the result list once the table has
+ * grown to the page size. A table grown past {@code MAX_RETAINED_CAPACITY}
+ * slots by an unusually large page is dropped after its join, so it does not
+ * stay with the thread. Other id types go through a presized
+ * {@link HashMap}. Ids in {@code order} without a row are handled as told by
+ * {@link Missing}; rows whose id is not in {@code order} are dropped.
+ * <p>
+ * Movieflix keeps a copy of this class in {@code com.devsuperior.movieflix.util};
+ * change both together.
+ */
+public final class OrderedJoin {
+
+    public enum Missing {
+        /** Leave the id out of the result, e.g. the row was deleted in between. */
+        SKIP,
+        /** Throw {@link IllegalStateException}. */
+        FAIL
+    }
+
+    private static final int MIN_CAPACITY = 64;
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final ThreadLocal<LongIndex> indexes = ThreadLocal.withInitial(LongIndex::new);
+
+    private OrderedJoin() {
+    }
+
+    /**
+     * @return the rows in the order of {@code order}
+     */
+    @SuppressWarnings("unchecked")
+    public static <ID, T extends IdProjection<ID>> List<T> join(List<? extends IdProjection<ID>> order, List<T> rows, Missing missing) {
+        if (!order.isEmpty() && order.get(0).getId() instanceof Long) {
+            return (List<T>) joinByLongId((List<? extends IdProjection<Long>>) order, (List<? extends IdProjection<Long>>) rows, missing);
+        }
+        Map<ID, T> byId = new HashMap<>((int) (rows.size() / 0.75f) + 1);
+        for (T row : rows) {
+            byId.put(row.getId(), row);
+        }
+        List<T> result = new ArrayList<>(order.size());
+        for (IdProjection<ID> item : order) {
+            T row = byId.get(item.getId());
+            if (row != null) {
+                result.add(row);
+            }
+            else if (missing == Missing.FAIL) {
+                throw new IllegalStateException("No row for id " + item.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #join(List, List, Missing)} for {@code Long} ids, without
+     * boxing or per-call index allocation.
+     */
+    public static <T extends IdProjection<Long>> List<T> joinByLongId(List<? extends IdProjection<Long>> order, List<T> rows, Missing missing) {
+        LongIndex index = indexes.get();
+        index.reset(rows.size());
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                index.put(rows.get(i).getId(), i);
+            }
+            List<T> result = new ArrayList<>(order.size());
+            for (IdProjection<Long> item : order) {
+                int position = index.get(item.getId());
+                if (position >= 0) {
+                    result.add(rows.get(position));
+                }
+                else if (missing == Missing.FAIL) {
+                    throw new IllegalStateException("No row for id " + item.getId());
+                }
+            }
+            return result;
+        }
+        finally {
+            index.clear();
+        }
+    }
+
+    /**
+     * long to int map with linear probing. Slot 0 of {@code positions} means
+     * empty, so positions are stored plus one. The slots taken are listed in
+     * {@code filled}, so clearing resets only those.
+     */
+    private static final class LongIndex {
+
+        private long[] keys;
+        private int[] positions;
+        private int[] filled;
+        private int mask;
+        private int used;
+
+        LongIndex() {
+            allocate(MIN_CAPACITY);
+        }
+
+        void reset(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expected * 2) - 1) << 1;
+            if (capacity > keys.length) {
+                allocate(capacity);
+            }
+        }
+
+        void put(long key, int position) {
+            int slot = slot(key);
+            while (positions[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (positions[slot] == 0) {
+                filled[used++] = slot;
+            }
+            keys[slot] = key;
+            positions[slot] = position + 1;
+        }
+
+        int get(long key) {
+            int slot = slot(key);
+            while (positions[slot] != 0) {
+                if (keys[slot] == key) {
+                    return positions[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void clear() {
+            for (int i = 0; i < used; i++) {
+                positions[filled[i]] = 0;
+            }
+            used = 0;
+            if (keys.length > MAX_RETAINED_CAPACITY) {
+                allocate(MIN_CAPACITY);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            positions = new int[capacity];
+            // at most one key per two slots
+            filled = new int[capacity / 2];
+            mask = capacity - 1;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.devsuperior.dscatalog.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BoundedPasswordEncoderTests {
+
+	private CountDownLatch started;
+	private CountDownLatch release;
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		// one hashing thread and one queue slot
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.destroy();
+	}
+
+	@Test
+	public void encodeAndMatchesShouldReturnResultOfDelegate() {
+		release.countDown();
+
+		Assertions.assertEquals("{noop}123456", encoder.encode("123456"));
+		Assertions.assertTrue(encoder.matches("123456", "{noop}123456"));
+		Assertions.assertFalse(encoder.matches("654321", "{noop}123456"));
+	}
+
+	@Test
+	public void submitEncodeShouldHashOnThePoolWithoutWaiting() throws Exception {
+		Future<String> hash = encoder.submitEncode("123456");
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		Assertions.assertFalse(hash.isDone());
+
+		release.countDown();
+		Assertions.assertEquals("{noop}123456", BoundedPasswordEncoder.await(hash));
+	}
+
+	@Test
+	public void encodeShouldBeRejectedRightAwayWhenPoolAndQueueAreFull() throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> running = callers.submit(() -> encoder.encode("running"));
+			Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<String> queued = callers.submit(() -> encoder.encode("queued"));
+			ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+			while (executor.getQueue().isEmpty()) {
+				Thread.onSpinWait();
+			}
+
+			Assertions.assertThrows(RejectedExecutionException.class, () -> encoder.encode("rejected"));
+
+			release.countDown();
+			Assertions.assertEquals("{noop}running", running.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals("{noop}queued", queued.get(5, TimeUnit.SECONDS));
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+
+	private class BlockingEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "{noop}" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.devsuperior.dscatalog.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class ExpiringOAuth2AuthorizationServiceTests {
+
+    private static final Duration TOKEN_DURATION = Duration.ofSeconds(60);
+
+    private MutableClock clock;
+    private ExpiringOAuth2AuthorizationService service;
+    private RegisteredClient registeredClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        service = new ExpiringOAuth2AuthorizationService(TOKEN_DURATION, 100, clock);
+        registeredClient = RegisteredClient.withId("myclientid")
+                .clientId("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .build();
+    }
+
+    @Test
+    public void findByTokenShouldReturnAuthorizationWhenAccessTokenIsValid() {
+        OAuth2Authorization authorization = createAuthorization("1");
+        service.save(authorization);
+
+        OAuth2Authorization result = service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(authorization.getId(), result.getId());
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertNull(service.findByToken("token-2", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void findShouldReturnNullWhenAccessTokenHasExpired() {
+        service.save(createAuthorization("1"));
+
+        clock.advance(TOKEN_DURATION);
+
+        Assertions.assertNull(service.findById("1"));
+        Assertions.assertNull(service.findByToken("token-1", null));
+    }
+
+    @Test
+    public void removeExpiredShouldDropOnlyExpiredAuthorizations() {
+        service.save(createAuthorization("1"));
+        clock.advance(Duration.ofSeconds(30));
+        service.save(createAuthorization("2"));
+        clock.advance(Duration.ofSeconds(30));
+
+        int removed = service.removeExpired();
+
+        Assertions.assertEquals(1, removed);
+        Assertions.assertEquals(1, service.size());
+        Assertions.assertNotNull(service.findById("2"));
+    }
+
+    @Test
+    public void removeShouldDropAuthorizationAndItsTokens() {
+        OAuth2Authorization authorization = createAuthorization("1");
+        service.save(authorization);
+
+        service.remove(authorization);
+
+        Assertions.assertEquals(0, service.size());
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void saveShouldEvictOldestAuthorizationsWhenMaxSizeIsReached() {
+        for (int i = 1; i <= 150; i++) {
+            service.save(createAuthorization(String.valueOf(i)));
+        }
+
+        Assertions.assertEquals(100, service.size());
+        Assertions.assertNull(service.findById("50"));
+        Assertions.assertNotNull(service.findById("51"));
+        Assertions.assertNotNull(service.findByToken("token-150", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void saveShouldMoveResavedAuthorizationToTheEndOfTheEvictionOrder() {
+        for (int i = 1; i <= 100; i++) {
+            service.save(createAuthorization(String.valueOf(i)));
+        }
+
+        service.save(createAuthorization("1"));
+        service.save(createAuthorization("101"));
+
+        Assertions.assertEquals(100, service.size());
+        Assertions.assertNotNull(service.findById("1"));
+        Assertions.assertNull(service.findById("2"));
+        Assertions.assertNull(service.findByToken("token-2", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void saveShouldKeepStoreBoundedOverOneMillionLogins() {
+        service = new ExpiringOAuth2AuthorizationService(TOKEN_DURATION, 10_000, clock);
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            service.save(createAuthorization(String.valueOf(i)));
+            clock.advance(Duration.ofMillis(10));
+            if (i % 1_000 == 0) {
+                service.removeExpired();
+            }
+            // 6000 tokens live at any time (60s / 10ms) plus at most 1000 saved since the last sweep
+            Assertions.assertTrue(service.size() <= 7_000);
+        }
+
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertNotNull(service.findByToken("token-1000000", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    private OAuth2Authorization createAuthorization(String id) {
+        Instant issuedAt = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "token-" + id, issuedAt, issuedAt.plus(TOKEN_DURATION));
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id(id)
+                .principalName("maria@gmail.com")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .accessToken(accessToken)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
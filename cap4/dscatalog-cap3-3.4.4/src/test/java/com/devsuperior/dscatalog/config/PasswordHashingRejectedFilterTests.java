@@ -0,0 +1,39 @@
+package com.devsuperior.dscatalog.config;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class PasswordHashingRejectedFilterTests {
+
+	private final PasswordHashingRejectedFilter filter = new PasswordHashingRejectedFilter();
+
+	@Test
+	public void doFilterShouldAnswerServiceUnavailableWhenHashingIsRejected() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("POST", "/oauth2/token"), response, (request, res) -> {
+			throw new RejectedExecutionException();
+		});
+
+		Assertions.assertEquals(503, response.getStatus());
+		Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+		Assertions.assertTrue(response.getContentAsString().contains("\"error\":\"temporarily_unavailable\""));
+	}
+
+	@Test
+	public void doFilterShouldLeaveOtherResponsesUntouched() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("POST", "/oauth2/token"), response, (request, res) -> {
+			((MockHttpServletResponse) res).setStatus(200);
+		});
+
+		Assertions.assertEquals(200, response.getStatus());
+		Assertions.assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+	}
+}
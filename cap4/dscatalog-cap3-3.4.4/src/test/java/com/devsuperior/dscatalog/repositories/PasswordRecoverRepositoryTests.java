@@ -0,0 +1,116 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscatalog.entities.PasswordRecover;
+
+@DataJpaTest
+public class PasswordRecoverRepositoryTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordRecoverRepositoryTests.class);
+
+	/**
+	 * Largest table of the load test, which only runs with {@code -Pbenchmark}.
+	 * Add {@code -Dpassword-recover.load-test.rows=10000000} and a heap of a few
+	 * gigabytes for the 10M rows step.
+	 */
+	private static final long MAX_ROWS = Long.getLong("password-recover.load-test.rows", 100_000L);
+	private static final int LOOKUPS = 2000;
+
+	@Autowired
+	private PasswordRecoverRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void searchValidTokenShouldReturnTokenOnlyBeforeExpiration() throws Exception {
+		Instant now = Instant.now();
+		repository.save(new PasswordRecover(null, sha256("valid"), "maria@gmail.com", now.plusSeconds(60)));
+		repository.save(new PasswordRecover(null, sha256("expired"), "alex@gmail.com", now.minusSeconds(60)));
+
+		Assertions.assertEquals("maria@gmail.com", repository.searchValidToken(sha256("valid"), now).orElseThrow().getEmail());
+		Assertions.assertTrue(repository.searchValidToken(sha256("expired"), now).isEmpty());
+		Assertions.assertTrue(repository.searchValidToken(sha256("unknown"), now).isEmpty());
+		Assertions.assertEquals(1, repository.searchExpiredIds(now, Limit.of(10)).size());
+	}
+
+	@Test
+	public void deleteByEmailShouldRemoveEveryTokenOfUserOnce() throws Exception {
+		Instant expiration = Instant.now().plusSeconds(60);
+		repository.save(new PasswordRecover(null, sha256("a"), "maria@gmail.com", expiration));
+		repository.save(new PasswordRecover(null, sha256("b"), "maria@gmail.com", expiration));
+		repository.save(new PasswordRecover(null, sha256("c"), "alex@gmail.com", expiration));
+
+		Assertions.assertEquals(2, repository.deleteByEmail("maria@gmail.com"));
+		Assertions.assertEquals(0, repository.deleteByEmail("maria@gmail.com"));
+		Assertions.assertEquals(1L, repository.count());
+	}
+
+	/**
+	 * Average lookup of a random existing token while the table grows tenfold
+	 * at each step, from 10,000 rows to {@link #MAX_ROWS}.
+	 */
+	@Tag("benchmark")
+	@Test
+	public void searchValidTokenShouldTakeConstantTimeAsTableGrows() throws Exception {
+		long inserted = 0;
+		long first = 0;
+		long last = 0;
+		for (long rows = 10_000; rows <= MAX_ROWS; rows *= 10) {
+			jdbcTemplate.update("INSERT INTO tb_passord_recover (token_hash, email, expiration) "
+					+ "SELECT HASH('SHA-256', CAST(X AS VARCHAR)), CONCAT('user', MOD(X, 100000), '@gmail.com'), "
+					+ "DATEADD('MINUTE', 30, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(?, ?)", inserted + 1, rows);
+			inserted = rows;
+
+			long time = timeLookups(rows);
+			logger.info("Token lookup with {} rows: {} us", rows, time / 1000);
+			if (first == 0) {
+				first = time;
+			}
+			last = time;
+		}
+		Assertions.assertTrue(last < first * 5, "lookup went from " + first + " ns to " + last + " ns");
+	}
+
+	private long timeLookups(long rows) throws Exception {
+		Random random = new Random(rows);
+		byte[][] hashes = new byte[LOOKUPS][];
+		for (int i = 0; i < LOOKUPS; i++) {
+			hashes[i] = sha256(String.valueOf(1 + random.nextLong(rows)));
+		}
+		Instant now = Instant.now();
+		for (int i = 0; i < LOOKUPS / 2; i++) {
+			Assertions.assertTrue(repository.searchValidToken(hashes[i], now).isPresent());
+			entityManager.clear();
+		}
+		long start = System.nanoTime();
+		for (byte[] hash : hashes) {
+			repository.searchValidToken(hash, now);
+			// one lookup per request, as in AuthService
+			entityManager.clear();
+		}
+		return (System.nanoTime() - start) / LOOKUPS;
+	}
+
+	private static byte[] sha256(String text) throws Exception {
+		return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
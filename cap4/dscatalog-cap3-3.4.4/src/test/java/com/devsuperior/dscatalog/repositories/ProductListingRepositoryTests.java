@@ -0,0 +1,203 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.IdProjection;
+import com.devsuperior.dscatalog.util.OrderedJoin;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@Import(ProductListingRepository.class)
+public class ProductListingRepositoryTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductListingRepositoryTests.class);
+
+	private static final int PRODUCTS = 100_000;
+	private static final int CATEGORIES = 50;
+	private static final int ROUNDS = 10;
+
+	@Autowired
+	private ProductListingRepository listingRepository;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private List<Long> categoryIds;
+	private long countTotalProducts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		categoryIds = List.of(1L, 3L);
+		countTotalProducts = 25L;
+	}
+
+	@Test
+	public void searchShouldReturnSameProductsAsThreeQueryListing() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+		ProductListingRepository.Listing result = listingRepository.search(categoryIds, "", pageable, true);
+
+		Assertions.assertEquals(toComparable(threeQueryListing(categoryIds, "", pageable).getContent()), toComparable(result.content()));
+		Assertions.assertEquals(threeQueryListing(categoryIds, "", pageable).getTotalElements(), result.total());
+	}
+
+	@Test
+	public void searchShouldReturnAllCategoriesOfEachProduct() {
+		ProductListingRepository.Listing result = listingRepository.search(List.of(2L), "", Pageable.unpaged(), true);
+
+		for (ProductDTO dto : result.content()) {
+			Product entity = repository.findByIdWithCategories(dto.getId()).orElseThrow();
+			Assertions.assertEquals(entity.getCategories().size(), dto.getCategories().size());
+			Assertions.assertEquals(entity.getDate(), dto.getDate());
+		}
+	}
+
+	@Test
+	public void searchShouldReturnEmptyContentWithoutTotalWhenPageDoesNotExist() {
+		ProductListingRepository.Listing result = listingRepository.search(List.of(), "", PageRequest.of(50, 10), true);
+
+		Assertions.assertTrue(result.content().isEmpty());
+		Assertions.assertNull(result.total());
+		Assertions.assertEquals(countTotalProducts, listingRepository.count(List.of(), ""));
+	}
+
+	@Test
+	public void searchShouldFilterByNameIgnoringCase() {
+		ProductListingRepository.Listing result = listingRepository.search(List.of(), "pc gAMER", PageRequest.of(0, 50), true);
+
+		Assertions.assertEquals(21L, result.total());
+		result.content().forEach(x -> Assertions.assertTrue(x.getName().startsWith("PC Gamer")));
+	}
+
+	/**
+	 * 100,000 products in 50 categories, filtered by two categories and sorted
+	 * by name: the three statement listing against one statement with the
+	 * total and one statement with the total cached.
+	 */
+	@Tag("benchmark")
+	@Test
+	public void searchShouldBeatThreeQueryListingOnLargeCatalog() {
+		insertCatalog();
+		List<Long> filter = List.of(7L, 21L);
+
+		for (int page : new int[] { 0, 200 }) {
+			Pageable pageable = PageRequest.of(page, 12, Sort.by("name"));
+			Assertions.assertEquals(toComparable(threeQueryListing(filter, "", pageable).getContent()),
+					toComparable(listingRepository.search(filter, "", pageable, true).content()));
+
+			long threeQueries = time(() -> threeQueryListing(filter, "", pageable));
+			long oneQuery = time(() -> listingRepository.search(filter, "", pageable, true));
+			long oneQueryCachedTotal = time(() -> listingRepository.search(filter, "", pageable, false));
+			logger.info("Page {} of {} products x {} categories: three statements {} us, one with total {} us, one without total {} us",
+					page, PRODUCTS, CATEGORIES, threeQueries / 1000, oneQuery / 1000, oneQueryCachedTotal / 1000);
+			Assertions.assertTrue(oneQuery < threeQueries);
+		}
+	}
+
+	/**
+	 * The listing as it was before ProductListingRepository: a page of ids
+	 * sorted by name, their total, and the products with categories fetched by
+	 * id and put back in page order.
+	 */
+	private Page<ProductDTO> threeQueryListing(List<Long> categoryIds, String name, Pageable pageable) {
+		String from = "FROM tb_product INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id "
+				+ "WHERE tb_product_category.category_id IN (:categoryIds) "
+				+ "AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+		List<?> rows = entityManager.createNativeQuery("SELECT DISTINCT tb_product.id, tb_product.name " + from
+				+ " ORDER BY tb_product.name, tb_product.id LIMIT :limit OFFSET :offset")
+				.setParameter("categoryIds", categoryIds)
+				.setParameter("name", name)
+				.setParameter("limit", pageable.getPageSize())
+				.setParameter("offset", pageable.getOffset())
+				.getResultList();
+		long total = ((Number) entityManager.createNativeQuery("SELECT COUNT(DISTINCT tb_product.id) " + from)
+				.setParameter("categoryIds", categoryIds)
+				.setParameter("name", name)
+				.getSingleResult()).longValue();
+
+		List<IdProjection<Long>> page = new ArrayList<>();
+		for (Object row : rows) {
+			Long id = ((Number) ((Object[]) row)[0]).longValue();
+			page.add(() -> id);
+		}
+		List<Long> productIds = page.stream().map(IdProjection::getId).toList();
+		List<Product> entities = entityManager.createQuery(
+				"SELECT obj FROM Product obj JOIN FETCH obj.categories WHERE obj.id IN :productIds", Product.class)
+				.setParameter("productIds", productIds)
+				.getResultList();
+		entities = OrderedJoin.join(page, entities, OrderedJoin.Missing.FAIL);
+		List<ProductDTO> dtos = entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+		return new PageImpl<>(dtos, pageable, total);
+	}
+
+	private static List<String> toComparable(List<ProductDTO> products) {
+		List<String> result = new ArrayList<>();
+		for (ProductDTO dto : products) {
+			List<Long> categories = dto.getCategories().stream().map(CategoryDTO::getId).sorted().toList();
+			result.add(dto.getId() + " " + dto.getName() + " " + dto.getPrice() + " " + dto.getDate() + " " + categories);
+		}
+		return result;
+	}
+
+	private void insertCatalog() {
+		List<Object[]> categories = new ArrayList<>();
+		for (int i = 0; i < CATEGORIES; i++) {
+			categories.add(new Object[] { "Category " + i });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_category (name, created_at) VALUES (?, NOW())", categories);
+
+		List<Object[]> products = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			products.add(new Object[] { String.format("Product %05d", (i * 7919) % PRODUCTS), 10.0 + i % 1000 });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, date, description, img_url) VALUES (?, ?, NOW(), '', '')", products);
+
+		long firstProduct = countTotalProducts + 1;
+		long firstCategory = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tb_category WHERE name LIKE 'Category %'", Long.class);
+		List<Object[]> links = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			links.add(new Object[] { firstProduct + i, firstCategory + i % CATEGORIES });
+			links.add(new Object[] { firstProduct + i, firstCategory + (i * 31 + 1) % CATEGORIES });
+		}
+		jdbcTemplate.batchUpdate("MERGE INTO tb_product_category (product_id, category_id) KEY (product_id, category_id) VALUES (?, ?)", links);
+	}
+
+	private static long time(Supplier<?> call) {
+		for (int i = 0; i < ROUNDS / 2; i++) {
+			call.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			call.get();
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+}
@@ -1,10 +1,13 @@
 package com.devsuperior.dscatalog.resources;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +16,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.tests.Factory;
 import com.devsuperior.dscatalog.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,6 +41,12 @@ public class ProductResourceIT {
 	@Autowired
 	private TokenUtil tokenUtil;
 
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -105,4 +118,121 @@ public class ProductResourceIT {
 		
 		result.andExpect(status().isNotFound());
 	}
+
+	@Test
+	public void importProductsShouldInsertAndUpdateValidRowsAndReportOthers() throws Exception {
+
+		String body = """
+				{"name":"Imported Phone","description":"Phone","price":100.0,"date":"2020-07-13T20:50:07Z","categories":[{"id":1},{"id":3}]}
+				{"id":1,"name":"Updated Book","description":"Book","price":10.0,"date":"2020-07-13T20:50:07Z","categories":[{"id":2}]}
+				{"id":1000,"name":"Missing Product","description":"None","price":10.0,"categories":[{"id":2}]}
+				{"name":"Bad","description":"Short name","price":-1.0,"categories":[{"id":1}]}
+				{"name":"No Category","description":"Unknown category","price":1.0,"categories":[{"id":99}]}
+				""";
+
+		ResultActions result =
+				mockMvc.perform(post("/products/import")
+					.header("Authorization", "Bearer " + bearerToken)
+					.content(body)
+					.contentType("application/x-ndjson")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.inserted").value(1));
+		result.andExpect(jsonPath("$.updated").value(1));
+		result.andExpect(jsonPath("$.rejected").value(3));
+		result.andExpect(jsonPath("$.errors[?(@.line == 3)].fieldName").value("id"));
+		result.andExpect(jsonPath("$.errors[?(@.line == 5)].fieldName").value("categories"));
+		Assertions.assertEquals(countTotalProducts + 1, productRepository.count());
+
+		mockMvc.perform(get("/products/{id}", existingId))
+				.andExpect(jsonPath("$.name").value("Updated Book"))
+				.andExpect(jsonPath("$.categories.length()").value(1))
+				.andExpect(jsonPath("$.categories[0].id").value(2));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void importProductsShouldRejectRepeatedIdsAndOnlyTheRowsTheDatabaseRefuses() throws Exception {
+
+		// the image url does not fit its column, so the chunk fails and is written row by row
+		String body = """
+				{"name":"Imported Phone","description":"Phone","price":100.0,"categories":[{"id":1}]}
+				{"name":"Long Image","description":"Image url longer than its column","price":1.0,"imgUrl":"%s","categories":[{"id":1}]}
+				{"id":1000,"name":"Missing Product","description":"None","price":10.0,"categories":[{"id":2}]}
+				{"id":1000,"name":"Missing Again","description":"None","price":10.0,"categories":[{"id":2}]}
+				""".formatted("x".repeat(300));
+
+		try {
+			ResultActions result =
+					mockMvc.perform(post("/products/import")
+						.header("Authorization", "Bearer " + bearerToken)
+						.content(body)
+						.contentType("application/x-ndjson")
+						.accept(MediaType.APPLICATION_JSON));
+
+			result.andExpect(status().isOk());
+			result.andExpect(jsonPath("$.inserted").value(1));
+			result.andExpect(jsonPath("$.updated").value(0));
+			result.andExpect(jsonPath("$.rejected").value(3));
+			result.andExpect(jsonPath("$.errors[?(@.line == 2)].fieldName").value("line"));
+			result.andExpect(jsonPath("$.errors[?(@.line == 3)].message").value("Id not found 1000"));
+			result.andExpect(jsonPath("$.errors[?(@.line == 4)].message").value("Id repetido no arquivo"));
+			Assertions.assertEquals(countTotalProducts + 1, productRepository.count());
+		}
+		finally {
+			productRepository.findAll().stream()
+					.filter(product -> product.getName().equals("Imported Phone"))
+					.forEach(product -> productService.delete(product.getId()));
+		}
+	}
+
+	@Test
+	public void exportProductsShouldWriteEveryProductAsCsv() throws Exception {
+
+		ResultActions result =
+				mockMvc.perform(get("/products/export?format=CSV")
+					.header("Authorization", "Bearer " + bearerToken));
+
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentTypeCompatibleWith("text/csv"));
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+		Assertions.assertEquals(countTotalProducts + 1, lines.length);
+		Assertions.assertTrue(lines[1].startsWith("1,The Lord of the Rings,"));
+		Assertions.assertTrue(lines[1].endsWith(",2"));
+	}
+
+	@Test
+	public void importProductsShouldReadBackAnExportWithMultiLineDescriptions() throws Exception {
+		String description = "Primeira linha, com \"aspas\"\r\nSegunda linha\nTerceira";
+		Product product = productRepository.findById(existingId).orElseThrow();
+		product.setDescription(description);
+		productRepository.saveAndFlush(product);
+
+		String export = mockMvc.perform(get("/products/export?format=CSV")
+					.header("Authorization", "Bearer " + bearerToken))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		ResultActions result =
+				mockMvc.perform(post("/products/import")
+					.header("Authorization", "Bearer " + bearerToken)
+					.content(export)
+					.contentType("text/csv")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.inserted").value(0));
+		result.andExpect(jsonPath("$.updated").value(countTotalProducts));
+		result.andExpect(jsonPath("$.rejected").value(0));
+		Assertions.assertEquals(description, productRepository.findById(existingId).orElseThrow().getDescription());
+	}
+
+	@Test
+	public void exportProductsShouldReturnUnauthorizedWhenNoToken() throws Exception {
+
+		mockMvc.perform(get("/products/export"))
+				.andExpect(status().isUnauthorized());
+	}
 }
@@ -0,0 +1,173 @@
+package com.devsuperior.dscatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.tests.TokenUtil;
+
+@SpringBootTest(properties = "users.import.batch-size=2")
+@AutoConfigureMockMvc
+@Transactional
+public class UserResourceIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenUtil tokenUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private String adminToken, operatorToken;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		adminToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+		operatorToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+	}
+
+	@Test
+	public void insertBulkShouldImportValidNdjsonRowsAndReportOthers() throws Exception {
+		String body = """
+				{"firstName":"Ana","lastName":"Lima","email":"ana@gmail.com","password":"12345678"}
+				{"firstName":"Bob","lastName":"Reis","email":"maria@gmail.com","password":"12345678"}
+				not json
+				{"firstName":"Carla","lastName":"Dias","email":"carla@gmail.com","password":"123"}
+
+				{"firstName":"Davi","lastName":"Melo","email":"davi@gmail.com","password":"12345678"}
+				{"firstName":"Ana","lastName":"Lima","email":"ana@gmail.com","password":"12345678"}
+				{"firstName":"Eva","lastName":"Rosa","email":"eva@gmail.com","password":"12345678"}
+				""";
+
+		ResultActions result =
+				mockMvc.perform(post("/users/bulk")
+					.header("Authorization", "Bearer " + adminToken)
+					.content(body)
+					.contentType("application/x-ndjson")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(3));
+		result.andExpect(jsonPath("$.rejected").value(4));
+		result.andExpect(jsonPath("$.errors.length()").value(4));
+		result.andExpect(jsonPath("$.errors[?(@.line == 2)].message").value("Email já existe"));
+		result.andExpect(jsonPath("$.errors[?(@.line == 3)].fieldName").value("line"));
+		result.andExpect(jsonPath("$.errors[?(@.line == 4)].fieldName").value("password"));
+		result.andExpect(jsonPath("$.errors[?(@.line == 7)].message").value("Email repetido no arquivo"));
+
+		User user = userRepository.findByEmail("eva@gmail.com");
+		Assertions.assertTrue(passwordEncoder.matches("12345678", user.getPassword()));
+		Assertions.assertTrue(user.hasRole("ROLE_OPERATOR"));
+		Assertions.assertNull(userRepository.findByEmail("carla@gmail.com"));
+	}
+
+	@Test
+	public void insertBulkShouldImportCsvWithQuotedFields() throws Exception {
+		String body = """
+				email,password,firstName,lastName
+				"ana@gmail.com",12345678,Ana,"Lima, ""Filha\"""
+				bob@gmail.com,12345678,,Reis
+				""";
+
+		ResultActions result =
+				mockMvc.perform(post("/users/bulk")
+					.header("Authorization", "Bearer " + adminToken)
+					.content(body)
+					.contentType("text/csv")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(1));
+		result.andExpect(jsonPath("$.errors[0].line").value(3));
+		result.andExpect(jsonPath("$.errors[0].fieldName").value("firstName"));
+		Assertions.assertEquals("Lima, \"Filha\"", userRepository.findByEmail("ana@gmail.com").getLastName());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void insertBulkShouldRejectOnlyTheRowsTheDatabaseRefuses() throws Exception {
+
+		// the last name does not fit its column, so the batch fails and is written row by row
+		String body = """
+				{"firstName":"Ana","lastName":"Lima","email":"ana@gmail.com","password":"12345678"}
+				{"firstName":"Bob","lastName":"%s","email":"bob@gmail.com","password":"12345678"}
+				{"firstName":"Eva","lastName":"Rosa","email":"eva@gmail.com","password":"12345678"}
+				""".formatted("x".repeat(300));
+
+		try {
+			ResultActions result =
+					mockMvc.perform(post("/users/bulk")
+						.header("Authorization", "Bearer " + adminToken)
+						.content(body)
+						.contentType("application/x-ndjson")
+						.accept(MediaType.APPLICATION_JSON));
+
+			result.andExpect(status().isOk());
+			result.andExpect(jsonPath("$.imported").value(2));
+			result.andExpect(jsonPath("$.rejected").value(1));
+			result.andExpect(jsonPath("$.errors[0].line").value(2));
+			result.andExpect(jsonPath("$.errors[0].fieldName").value("line"));
+			Assertions.assertNotNull(userRepository.findByEmail("ana@gmail.com"));
+			Assertions.assertNotNull(userRepository.findByEmail("eva@gmail.com"));
+			Assertions.assertNull(userRepository.findByEmail("bob@gmail.com"));
+		}
+		finally {
+			for (String email : new String[] { "ana@gmail.com", "eva@gmail.com" }) {
+				User user = userRepository.findByEmail(email);
+				if (user != null) {
+					userRepository.delete(user);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void insertBulkShouldCountEveryRejectedRowButListOnlyTheFirstOnes() throws Exception {
+		String body = "not json\n".repeat(1005);
+
+		ResultActions result =
+				mockMvc.perform(post("/users/bulk")
+					.header("Authorization", "Bearer " + adminToken)
+					.content(body)
+					.contentType("application/x-ndjson")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(0));
+		result.andExpect(jsonPath("$.rejected").value(1005));
+		result.andExpect(jsonPath("$.errors.length()").value(1000));
+		result.andExpect(jsonPath("$.errors[999].line").value(1000));
+	}
+
+	@Test
+	public void insertBulkShouldReturnForbiddenWhenUserIsNotAdmin() throws Exception {
+		ResultActions result =
+				mockMvc.perform(post("/users/bulk")
+					.header("Authorization", "Bearer " + operatorToken)
+					.content("email,password,firstName,lastName\n")
+					.contentType("text/csv")
+					.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,126 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.dto.EmailDTO;
+import com.devsuperior.dscatalog.dto.NewPasswordDTO;
+import com.devsuperior.dscatalog.entities.PasswordRecover;
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+
+@SpringBootTest
+@Transactional
+public class AuthServiceIT {
+
+	@Autowired
+	private AuthService service;
+
+	@Autowired
+	private PasswordRecoverPurge purge;
+
+	@Autowired
+	private PasswordRecoverRepository passwordRecoverRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	private String existingEmail;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingEmail = "maria@gmail.com";
+	}
+
+	@Test
+	public void createRecoverTokenShouldStoreOnlyHashOfToken() {
+		String token = createRecoverToken(existingEmail);
+
+		PasswordRecover entity = passwordRecoverRepository.findAll().get(0);
+		Assertions.assertEquals(32, entity.getTokenHash().length);
+		Assertions.assertNotEquals(token, new String(entity.getTokenHash()));
+		Assertions.assertTrue(token.length() >= 43);
+	}
+
+	@Test
+	public void saveNewPasswordShouldAcceptTokenOnlyOnce() {
+		String token = createRecoverToken(existingEmail);
+
+		service.saveNewPassword(new NewPasswordDTO(token, "newPassword1"));
+
+		Assertions.assertTrue(passwordEncoder.matches("newPassword1", userRepository.findByEmail(existingEmail).getPassword()));
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.saveNewPassword(new NewPasswordDTO(token, "newPassword2"));
+		});
+	}
+
+	@Test
+	public void saveNewPasswordShouldInvalidateOtherTokensOfUser() {
+		String first = createRecoverToken(existingEmail);
+		String second = createRecoverToken(existingEmail);
+
+		service.saveNewPassword(new NewPasswordDTO(second, "newPassword1"));
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.saveNewPassword(new NewPasswordDTO(first, "newPassword2"));
+		});
+		Assertions.assertEquals(0L, passwordRecoverRepository.count());
+	}
+
+	@Test
+	public void saveNewPasswordShouldThrowResourceNotFoundExceptionWhenTokenExpired() {
+		String token = createRecoverToken(existingEmail);
+		PasswordRecover entity = passwordRecoverRepository.findAll().get(0);
+		entity.setExpiration(Instant.now().minusSeconds(1));
+		passwordRecoverRepository.saveAndFlush(entity);
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.saveNewPassword(new NewPasswordDTO(token, "newPassword1"));
+		});
+	}
+
+	@Test
+	public void purgeExpiredShouldDeleteOnlyExpiredTokensInBatches() {
+		Instant now = Instant.now();
+		for (int i = 0; i < 2500; i++) {
+			Instant expiration = (i % 5 == 0) ? now.plusSeconds(600) : now.minusSeconds(i);
+			byte[] hash = new byte[32];
+			hash[0] = (byte) i;
+			hash[1] = (byte) (i >> 8);
+			passwordRecoverRepository.save(new PasswordRecover(null, hash, "user" + i + "@gmail.com", expiration));
+		}
+
+		int deleted = purge.purgeExpired(now);
+
+		Assertions.assertEquals(2000, deleted);
+		Assertions.assertEquals(500L, passwordRecoverRepository.count());
+	}
+
+	private String createRecoverToken(String email) {
+		Mockito.clearInvocations(emailService);
+		service.createRecoverToken(new EmailDTO(email));
+		ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(emailService).sendEmail(ArgumentMatchers.eq(email), ArgumentMatchers.anyString(), text.capture());
+		String body = text.getValue();
+		int start = body.indexOf("/recover-password/") + "/recover-password/".length();
+		return body.substring(start, body.indexOf('\n', start));
+	}
+}
@@ -0,0 +1,179 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.dto.EmailDTO;
+import com.devsuperior.dscatalog.entities.EmailDeadLetter;
+import com.devsuperior.dscatalog.repositories.EmailDeadLetterRepository;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+@SpringBootTest(properties = {
+		"email.outbox.batch-size=2",
+		"email.outbox.max-attempts=5",
+		"email.outbox.initial-backoff=50ms",
+		"email.outbox.max-backoff=200ms",
+		"email.outbox.poll-interval=50ms",
+		"spring.mail.username=dscatalog@localhost",
+		"spring.mail.password=secret",
+		"spring.mail.properties.mail.smtp.starttls.enable=false" })
+public class EmailOutboxIT {
+
+	private static final int SMTP_PORT = freePort();
+
+	@DynamicPropertySource
+	static void mailProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.host", () -> "127.0.0.1");
+		registry.add("spring.mail.port", () -> SMTP_PORT);
+	}
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@Autowired
+	private EmailDeadLetterRepository deadLetterRepository;
+
+	@Autowired
+	private PasswordRecoverRepository passwordRecoverRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private GreenMail smtpServer;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		smtpServer = new GreenMail(new ServerSetup(SMTP_PORT, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+		smtpServer.setUser("dscatalog@localhost", "dscatalog@localhost", "secret");
+		smtpServer.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		smtpServer.stop();
+		deadLetterRepository.deleteAll();
+		outboxRepository.deleteAll();
+		passwordRecoverRepository.deleteAll();
+	}
+
+	@Test
+	public void createRecoverTokenShouldSendEmailAfterCommit() throws Exception {
+		EmailDTO body = new EmailDTO("maria@gmail.com");
+
+		authService.createRecoverToken(body);
+
+		Assertions.assertTrue(smtpServer.waitForIncomingEmail(5000, 1));
+		MimeMessage message = smtpServer.getReceivedMessages()[0];
+		Assertions.assertEquals("maria@gmail.com", message.getAllRecipients()[0].toString());
+		Assertions.assertEquals("Recuperação de senha", message.getSubject());
+		Assertions.assertTrue(message.getContent().toString().contains("/recover-password/"));
+		waitFor(() -> outboxRepository.count() == 0);
+		Assertions.assertTrue(meterRegistry.get("email.outbox.delivery").timer().count() > 0);
+	}
+
+	@Test
+	public void sendEmailShouldSendEveryEmailOfTheTransactionInBatches() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			for (int i = 0; i < 5; i++) {
+				emailService.sendEmail("user" + i + "@gmail.com", "Subject " + i, "Body " + i);
+			}
+		});
+
+		Assertions.assertTrue(smtpServer.waitForIncomingEmail(5000, 5));
+		waitFor(() -> outboxRepository.count() == 0);
+	}
+
+	@Test
+	public void sendEmailShouldNotSendWhenTransactionRollsBack() throws Exception {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			emailService.sendEmail("alex@gmail.com", "Subject", "Body");
+			status.setRollbackOnly();
+		});
+
+		Thread.sleep(300);
+		Assertions.assertEquals(0, smtpServer.getReceivedMessages().length);
+		Assertions.assertEquals(0L, outboxRepository.count());
+	}
+
+	@Test
+	public void createRecoverTokenShouldKeepTokenAndRetryWhenSmtpServerIsDown() throws Exception {
+		smtpServer.stop();
+		EmailDTO body = new EmailDTO("maria@gmail.com");
+
+		authService.createRecoverToken(body);
+
+		Assertions.assertEquals(1L, passwordRecoverRepository.count());
+		waitFor(() -> outboxRepository.findAll().stream().anyMatch(x -> x.getAttempts() > 0));
+
+		setUp();
+
+		Assertions.assertTrue(smtpServer.waitForIncomingEmail(5000, 1));
+		waitFor(() -> outboxRepository.count() == 0);
+		Assertions.assertEquals(0L, deadLetterRepository.count());
+	}
+
+	@Test
+	public void sendEmailShouldMoveEmailToDeadLetterAfterMaxAttempts() {
+		smtpServer.stop();
+
+		emailService.sendEmail("alex@gmail.com", "Subject", "Body");
+
+		waitFor(() -> deadLetterRepository.count() == 1);
+		Assertions.assertEquals(0L, outboxRepository.count());
+		List<EmailDeadLetter> deadLetters = deadLetterRepository.findAll();
+		Assertions.assertEquals(5, deadLetters.get(0).getAttempts());
+		Assertions.assertEquals("alex@gmail.com", deadLetters.get(0).getRecipient());
+		Assertions.assertNotNull(deadLetters.get(0).getLastError());
+	}
+
+	private static void waitFor(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the outbox");
+			try {
+				Thread.sleep(20);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.devsuperior.dscatalog.services;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCounterTests {
+
+	@InjectMocks
+	private ProductCounter counter;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// 25 products: 3 in category 1 and 20 in category 3
+		Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Long.class))).thenReturn(25L);
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			ResultSet rs = Mockito.mock(ResultSet.class);
+			Mockito.when(rs.getLong("category_id")).thenReturn(1L, 3L);
+			Mockito.when(rs.getLong("products")).thenReturn(3L, 20L);
+			handler.processRow(rs);
+			handler.processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(ArgumentMatchers.anyString(), ArgumentMatchers.any(RowCallbackHandler.class));
+	}
+
+	@Test
+	public void totalShouldLoadCountsFromDatabaseOnFirstRead() {
+		Assertions.assertEquals(25L, counter.total());
+		Assertions.assertEquals(Map.of(1L, 3L, 3L, 20L), counter.byCategory());
+		Assertions.assertEquals(0L, counter.byCategory(2L));
+	}
+
+	@Test
+	public void countsShouldFollowReportedChangesWithoutQueryingDatabase() {
+		counter.total();
+
+		counter.inserted(List.of(1L, 2L));
+		counter.categoriesChanged(List.of(1L, 2L), List.of(2L, 3L));
+		counter.deleted(List.of(3L));
+
+		Assertions.assertEquals(25L, counter.total());
+		Assertions.assertEquals(3L, counter.byCategory(1L));
+		Assertions.assertEquals(1L, counter.byCategory(2L));
+		Assertions.assertEquals(20L, counter.byCategory(3L));
+		Mockito.verify(jdbcTemplate, Mockito.times(1)).queryForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Long.class));
+	}
+
+	@Test
+	public void reconcileShouldCorrectDrift() {
+		counter.total();
+		counter.inserted(List.of(1L));
+		counter.inserted(List.of(2L));
+
+		counter.reconcile();
+
+		Assertions.assertEquals(25L, counter.total());
+		Assertions.assertEquals(Map.of(1L, 3L, 3L, 20L), counter.byCategory());
+	}
+}
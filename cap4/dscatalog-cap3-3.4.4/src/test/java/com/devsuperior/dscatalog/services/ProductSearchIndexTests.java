@@ -0,0 +1,143 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.ProductListingRepository;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+	@InjectMocks
+	private ProductSearchIndex searchIndex;
+
+	@Mock
+	private ProductListingRepository listingRepository;
+
+	private ProductDTO book, tv, notebook;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		book = createProduct(1L, "The Lord of the Rings", 90.5, 1L);
+		tv = createProduct(2L, "Smart TV", 2190.0, 2L);
+		notebook = createProduct(3L, "Macbook Pro", 1250.0, 2L, 3L);
+
+		Mockito.when(listingRepository.scan(ArgumentMatchers.eq(0L), ArgumentMatchers.anyInt())).thenReturn(List.of(book, tv, notebook));
+	}
+
+	@Test
+	public void searchShouldReturnEmptyWhenIndexIsWarming() {
+		Optional<Page<ProductDTO>> result = searchIndex.search("", List.of(), PageRequest.of(0, 12));
+
+		Assertions.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void searchShouldReturnProductsOfAnyGivenCategory() {
+		searchIndex.rebuild();
+
+		Page<ProductDTO> result = searchIndex.search("", List.of(1L, 3L), PageRequest.of(0, 12)).orElseThrow();
+
+		Assertions.assertEquals(2L, result.getTotalElements());
+		Assertions.assertEquals(book.getId(), result.getContent().get(0).getId());
+		Assertions.assertEquals(notebook.getId(), result.getContent().get(1).getId());
+	}
+
+	@Test
+	public void searchShouldIntersectCategoryAndNameIgnoringCase() {
+		searchIndex.rebuild();
+
+		Page<ProductDTO> result = searchIndex.search("BOOK", List.of(2L), PageRequest.of(0, 12)).orElseThrow();
+
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertEquals(notebook.getId(), result.getContent().get(0).getId());
+		Assertions.assertTrue(searchIndex.search("tv", List.of(1L), PageRequest.of(0, 12)).orElseThrow().isEmpty());
+	}
+
+	@Test
+	public void searchShouldPageAndSortResultsWhenSortIsRequested() {
+		searchIndex.rebuild();
+
+		Page<ProductDTO> result = searchIndex.search("", List.of(), PageRequest.of(1, 2, Sort.by("price").descending())).orElseThrow();
+
+		Assertions.assertEquals(3L, result.getTotalElements());
+		Assertions.assertEquals(1, result.getNumberOfElements());
+		Assertions.assertEquals(book.getId(), result.getContent().get(0).getId());
+	}
+
+	@Test
+	public void indexShouldReplacePostingsWhenProductChanges() {
+		searchIndex.rebuild();
+
+		searchIndex.index(createProduct(2L, "Smart TV", 2190.0, 1L));
+
+		Assertions.assertEquals(2L, searchIndex.search("", List.of(1L), PageRequest.of(0, 12)).orElseThrow().getTotalElements());
+		Assertions.assertEquals(1L, searchIndex.search("", List.of(2L), PageRequest.of(0, 12)).orElseThrow().getTotalElements());
+	}
+
+	@Test
+	public void removeShouldDropProductFromEveryPosting() {
+		searchIndex.rebuild();
+
+		searchIndex.remove(notebook.getId());
+
+		Assertions.assertTrue(searchIndex.search("mac", List.of(), PageRequest.of(0, 12)).orElseThrow().isEmpty());
+		Assertions.assertTrue(searchIndex.search("", List.of(3L), PageRequest.of(0, 12)).orElseThrow().isEmpty());
+	}
+
+	@Test
+	public void indexShouldTurnSearchOffWhenIdDoesNotFitTheIndex() {
+		searchIndex.rebuild();
+
+		searchIndex.index(createProduct(Integer.MAX_VALUE + 1L, "Smart TV 2", 2190.0, 2L));
+		searchIndex.remove(Integer.MAX_VALUE + 2L);
+
+		Assertions.assertFalse(searchIndex.isReady());
+		Assertions.assertTrue(searchIndex.search("", List.of(), PageRequest.of(0, 12)).isEmpty());
+	}
+
+	@Test
+	public void rebuildShouldLeaveSearchOffWhenIdDoesNotFitTheIndex() {
+		Mockito.when(listingRepository.scan(ArgumentMatchers.eq(0L), ArgumentMatchers.anyInt()))
+				.thenReturn(List.of(book, createProduct(Integer.MAX_VALUE + 1L, "Smart TV 2", 2190.0, 2L)));
+
+		searchIndex.rebuild();
+
+		Assertions.assertFalse(searchIndex.isReady());
+	}
+
+	@Test
+	public void renameCategoryShouldUpdateListedProducts() {
+		searchIndex.rebuild();
+
+		searchIndex.renameCategory(2L, "TVs e Computadores");
+
+		Page<ProductDTO> result = searchIndex.search("", List.of(2L), PageRequest.of(0, 12)).orElseThrow();
+		Assertions.assertEquals("TVs e Computadores", result.getContent().get(0).getCategories().get(0).getName());
+		Assertions.assertEquals("Category 2", tv.getCategories().get(0).getName());
+	}
+
+	private static ProductDTO createProduct(Long id, String name, Double price, Long... categoryIds) {
+		ProductDTO dto = new ProductDTO(id, name, "", price, "", Instant.parse("2020-07-14T10:00:00Z"));
+		for (Long categoryId : categoryIds) {
+			dto.getCategories().add(new CategoryDTO(categoryId, "Category " + categoryId));
+		}
+		return dto;
+	}
+}
@@ -5,16 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.tests.JdbcRowCounter;
 
 @SpringBootTest
+@Import(JdbcRowCounter.class)
 @Transactional
 public class ProductServiceIT {
 
@@ -23,6 +31,15 @@ public class ProductServiceIT {
 	
 	@Autowired
 	private ProductRepository repository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcRowCounter rowCounter;
 	
 	private Long existingId;
 	private Long nonExistingId;
@@ -56,7 +73,7 @@ public class ProductServiceIT {
 		
 		PageRequest pageRequest = PageRequest.of(0, 10);
 		
-		Page<ProductDTO> result = service.findAllPaged(pageRequest);
+		Page<ProductDTO> result = service.findAllPaged("", "0", pageRequest);
 		
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(0, result.getNumber());
@@ -69,7 +86,7 @@ public class ProductServiceIT {
 		
 		PageRequest pageRequest = PageRequest.of(50, 10);
 		
-		Page<ProductDTO> result = service.findAllPaged(pageRequest);
+		Page<ProductDTO> result = service.findAllPaged("", "0", pageRequest);
 		
 		Assertions.assertTrue(result.isEmpty());
 	}
@@ -79,11 +96,38 @@ public class ProductServiceIT {
 		
 		PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
 		
-		Page<ProductDTO> result = service.findAllPaged(pageRequest);
+		Page<ProductDTO> result = service.findAllPaged("", "0", pageRequest);
 		
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals("Macbook Pro", result.getContent().get(0).getName());
 		Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
 		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());		
 	}
+
+	@Test
+	public void updateShouldWriteOnlyChangedCategories() {
+
+		ProductDTO dto = service.findById(existingId);
+		dto.getCategories().clear();
+		for (int i = 0; i < 40; i++) {
+			dto.getCategories().add(new CategoryDTO(categoryRepository.save(new Category(null, "Category " + i))));
+		}
+		service.update(existingId, dto);
+		entityManager.flush();
+		entityManager.clear();
+
+		dto.getCategories().remove(0);
+		dto.getCategories().add(new CategoryDTO(categoryRepository.save(new Category(null, "Replacement"))));
+		entityManager.flush();
+		entityManager.clear();
+
+		rowCounter.reset();
+		service.update(existingId, dto);
+		entityManager.flush();
+		entityManager.clear();
+
+		// one row deleted and one inserted, not the 40 rows deleted and written back
+		Assertions.assertEquals(2L, rowCounter.rowsWritten("tb_product_category"));
+		Assertions.assertEquals(40, repository.findByIdWithCategories(existingId).orElseThrow().getCategories().size());
+	}
 }
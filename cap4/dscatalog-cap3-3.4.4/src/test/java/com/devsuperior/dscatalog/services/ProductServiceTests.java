@@ -13,6 +13,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -20,8 +22,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductListingRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -35,6 +39,18 @@ public class ProductServiceTests {
 	
 	@Mock
 	private ProductRepository repository;
+
+	@Mock
+	private ProductListingRepository listingRepository;
+
+	@Mock
+	private CacheManager cacheManager;
+
+	@Mock
+	private ProductSearchIndex searchIndex;
+
+	@Mock
+	private ProductCounter counter;
 	
 	private long existingId;
 	private long nonExistingId;
@@ -50,7 +66,9 @@ public class ProductServiceTests {
 		product = Factory.createProduct();
 		page = new PageImpl<>(List.of(product));
 		
-		Mockito.when(repository.findAll((Pageable)ArgumentMatchers.any())).thenReturn(page);
+		Mockito.when(listingRepository.search(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyBoolean()))
+				.thenReturn(new ProductListingRepository.Listing(List.of(new ProductDTO(product, product.getCategories())), 1L));
+		Mockito.when(cacheManager.getCache(CacheConfig.PRODUCT_TOTALS)).thenReturn(new ConcurrentMapCache(CacheConfig.PRODUCT_TOTALS));
 		
 		Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
 		
@@ -70,11 +88,37 @@ public class ProductServiceTests {
 		
 		Pageable pageable = PageRequest.of(0, 12);
 		
-		Page<ProductDTO> result = service.findAllPaged(pageable);
+		Page<ProductDTO> result = service.findAllPaged("", "0", pageable);
 		
 		Assertions.assertNotNull(result);
+		Assertions.assertEquals(1L, result.getTotalElements());
+		
+		Mockito.verify(listingRepository, times(1)).search(List.of(), "", pageable, true);
+	}
+
+	@Test
+	public void findAllPagedShouldReturnIndexedPageWithoutQueryingDatabaseWhenIndexIsReady() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Page<ProductDTO> indexed = new PageImpl<>(List.of(Factory.createProductDTO()), pageable, 1L);
+		Mockito.when(searchIndex.search("", List.of(1L), pageable)).thenReturn(Optional.of(indexed));
+		
+		Page<ProductDTO> result = service.findAllPaged("", "1", pageable);
+		
+		Assertions.assertSame(indexed, result);
+		Mockito.verifyNoInteractions(listingRepository);
+	}
+
+	@Test
+	public void findAllPagedShouldReuseCachedTotalForSameFilter() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		
+		service.findAllPaged("", "3,1", pageable);
+		service.findAllPaged("", "1,3", pageable.next());
 		
-		Mockito.verify(repository, times(1)).findAll(pageable);
+		Mockito.verify(listingRepository, times(1)).search(List.of(1L, 3L), "", pageable, true);
+		Mockito.verify(listingRepository, times(1)).search(List.of(1L, 3L), "", pageable.next(), false);
 	}
 	
 	@Test
@@ -0,0 +1,64 @@
+package com.devsuperior.dscatalog.services;
+
+import static org.mockito.Mockito.times;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.repositories.RoleRepository;
+
+@ExtendWith(SpringExtension.class)
+public class RoleRegistryTests {
+
+	@InjectMocks
+	private RoleRegistry registry;
+
+	@Mock
+	private RoleRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_OPERATOR"), new Role(2L, "ROLE_ADMIN")));
+		ReflectionTestUtils.setField(registry, "refreshMinInterval", Duration.ZERO);
+		registry.refresh();
+	}
+
+	@Test
+	public void findShouldNotQueryWhenRoleIsKnown() {
+		Assertions.assertEquals("ROLE_ADMIN", registry.findById(2L).orElseThrow().getAuthority());
+		Assertions.assertEquals(1L, registry.findByAuthority("ROLE_OPERATOR").orElseThrow().getId());
+		Assertions.assertSame(registry.grantedAuthority("ROLE_ADMIN"), registry.grantedAuthority("ROLE_ADMIN"));
+
+		Mockito.verify(repository, times(1)).findAll();
+	}
+
+	@Test
+	public void findByIdShouldReloadWhenRoleIsUnknown() {
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_OPERATOR"), new Role(2L, "ROLE_ADMIN"),
+				new Role(3L, "ROLE_AUDITOR")));
+
+		Assertions.assertEquals("ROLE_AUDITOR", registry.findById(3L).orElseThrow().getAuthority());
+		Assertions.assertTrue(registry.findById(null).isEmpty());
+		Mockito.verify(repository, times(2)).findAll();
+	}
+
+	@Test
+	public void findByIdShouldNotReloadWithinMinimumInterval() {
+		ReflectionTestUtils.setField(registry, "refreshMinInterval", Duration.ofHours(1));
+
+		Assertions.assertTrue(registry.findById(3L).isEmpty());
+		Assertions.assertTrue(registry.findByAuthority("ROLE_AUDITOR").isEmpty());
+		Mockito.verify(repository, times(1)).findAll();
+	}
+}
@@ -0,0 +1,104 @@
+package com.devsuperior.dscatalog.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.devsuperior.dscatalog.config.CacheConfig;
+import com.devsuperior.dscatalog.dto.UserUpdateDTO;
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.tests.TokenUtil;
+
+/**
+ * Not transactional: USERS evictions only run after the service transaction
+ * commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserServiceIT {
+
+	@Autowired
+	private UserService service;
+
+	@Autowired
+	private UserRepository repository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenUtil tokenUtil;
+
+	private String email;
+	private String password;
+	private String storedPassword;
+	private Cache users;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		email = "mateusrcampos@gmail.com";
+		password = "123456";
+		storedPassword = repository.findByEmail(email).getPassword();
+		users = cacheManager.getCache(CacheConfig.USERS);
+		users.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		User user = repository.findByEmail(email);
+		user.setPassword(storedPassword);
+		repository.save(user);
+		users.clear();
+	}
+
+	@Test
+	public void loginShouldRehashPasswordStoredWithLowerWorkFactorAndEvictCachedUser() throws Exception {
+		User user = repository.findByEmail(email);
+		user.setPassword(new BCryptPasswordEncoder(4).encode(password));
+		repository.save(user);
+
+		tokenUtil.obtainAccessToken(mockMvc, email, password);
+
+		Assertions.assertTrue(repository.findByEmail(email).getPassword().startsWith("{bcrypt}$2a$10$"));
+		Assertions.assertNull(users.get(email));
+		tokenUtil.obtainAccessToken(mockMvc, email, password);
+	}
+
+	@Test
+	public void loadUserByUsernameShouldBeServedFromCache() {
+		service.loadUserByUsername(email);
+		User user = repository.findByEmail(email);
+		user.setPassword("changed outside the service");
+		repository.save(user);
+
+		Assertions.assertEquals(storedPassword, service.loadUserByUsername(email).getPassword());
+	}
+
+	@Test
+	public void updateShouldEvictCachedUsers() {
+		service.loadUserByUsername(email);
+		Assertions.assertNotNull(users.get(email));
+		User user = repository.findByEmail(email);
+		UserUpdateDTO dto = new UserUpdateDTO();
+		dto.setFirstName(user.getFirstName());
+		dto.setLastName(user.getLastName());
+		dto.setEmail(user.getEmail());
+		dto.getRoles().addAll(service.findById(user.getId()).getRoles());
+
+		service.update(user.getId(), dto);
+
+		Assertions.assertNull(users.get(email));
+	}
+}
@@ -0,0 +1,112 @@
+package com.devsuperior.dscatalog.tests;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the DataSource and counts the rows each INSERT, UPDATE and DELETE
+ * reports as written, per table, whether the statement ran alone or in a
+ * JDBC batch.
+ */
+public class JdbcRowCounter implements BeanPostProcessor {
+
+	private static final Pattern WRITE = Pattern.compile("^\\s*(?:insert\\s+into|update|delete\\s+from)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+	private final Map<String, AtomicLong> rows = new ConcurrentHashMap<>();
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource) {
+			return wrap(dataSource);
+		}
+		return bean;
+	}
+
+	public long rowsWritten(String table) {
+		AtomicLong count = rows.get(table.toLowerCase(Locale.ROOT));
+		return count == null ? 0L : count.get();
+	}
+
+	public void reset() {
+		rows.clear();
+	}
+
+	private DataSource wrap(DataSource dataSource) {
+		return proxy(DataSource.class, (proxy, method, args) -> {
+			Object result = invoke(dataSource, method, args);
+			return result instanceof Connection connection ? wrap(connection) : result;
+		});
+	}
+
+	private Connection wrap(Connection connection) {
+		return proxy(Connection.class, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+				return wrap(statement, sql);
+			}
+			return result;
+		});
+	}
+
+	private PreparedStatement wrap(PreparedStatement statement, String sql) {
+		Matcher matcher = WRITE.matcher(sql);
+		if (!matcher.find()) {
+			return statement;
+		}
+		String table = matcher.group(1).toLowerCase(Locale.ROOT);
+		return proxy(PreparedStatement.class, (proxy, method, args) -> {
+			Object result = invoke(statement, method, args);
+			if (method.getName().startsWith("execute")) {
+				count(table, result);
+			}
+			return result;
+		});
+	}
+
+	private void count(String table, Object result) {
+		long written = 0L;
+		if (result instanceof Number number) {
+			written = number.longValue();
+		}
+		else if (result instanceof int[] counts) {
+			for (int count : counts) {
+				written += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+			}
+		}
+		else if (result instanceof long[] counts) {
+			for (long count : counts) {
+				written += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+			}
+		}
+		rows.computeIfAbsent(table, key -> new AtomicLong()).addAndGet(written);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(JdbcRowCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.devsuperior.dscatalog.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CsvTests {
+
+	@Test
+	public void splitShouldReadQuotedFields() {
+		List<String> values = Csv.split("1,\"Lima, \"\"Filha\"\"\",,x");
+
+		Assertions.assertEquals(List.of("1", "Lima, \"Filha\"", "", "x"), values);
+	}
+
+	@Test
+	public void splitShouldThrowIllegalArgumentExceptionWhenQuoteIsNotClosed() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			Csv.split("1,\"open");
+		});
+	}
+
+	@Test
+	public void appendShouldQuoteOnlyWhenNeededAndReadBackTheSameValue() {
+		StringBuilder line = new StringBuilder();
+		Csv.append(line, "plain").append(',');
+		Csv.append(line, "a, \"b\"").append(',');
+		Csv.append(line, null).append(',');
+		Csv.append(line, "two\r\nlines");
+
+		Assertions.assertEquals("plain,\"a, \"\"b\"\"\",,\"two\r\nlines\"", line.toString());
+		Assertions.assertEquals(List.of("plain", "a, \"b\"", "", "two\r\nlines"), Csv.split(line.toString()));
+	}
+
+	@Test
+	public void recordReaderShouldJoinLinesOfQuotedFieldsAndCountLines() throws IOException {
+		Csv.RecordReader records = reader("id,description\r\n1,\"first\r\nsecond\nthird\"\r\n2,plain\n", true);
+
+		Assertions.assertEquals("id,description", records.next());
+		Assertions.assertEquals(1L, records.lineNumber());
+		Assertions.assertEquals(List.of("1", "first\r\nsecond\nthird"), Csv.split(records.next()));
+		Assertions.assertEquals(2L, records.lineNumber());
+		Assertions.assertEquals("2,plain", records.next());
+		Assertions.assertEquals(5L, records.lineNumber());
+		Assertions.assertNull(records.next());
+	}
+
+	@Test
+	public void recordReaderShouldReadEveryLineAsRecordWhenNotMultiline() throws IOException {
+		Csv.RecordReader records = reader("{\"name\":\"a\\\"\"}\n{\"name\":\"b\"}", false);
+
+		Assertions.assertEquals("{\"name\":\"a\\\"\"}", records.next());
+		Assertions.assertEquals("{\"name\":\"b\"}", records.next());
+		Assertions.assertEquals(2L, records.lineNumber());
+		Assertions.assertNull(records.next());
+	}
+
+	@Test
+	public void columnsShouldMatchHeaderIgnoringCaseAndSpaces() {
+		Map<String, Integer> columns = Csv.columns(List.of(" Email", "FIRSTNAME", "other"), "firstName", "email", "password");
+
+		Assertions.assertEquals(Map.of("email", 0, "firstName", 1), columns);
+		Assertions.assertNull(Csv.get(List.of("a@b.com", "Ana"), columns, "password"));
+	}
+
+	private static Csv.RecordReader reader(String text, boolean multiline) {
+		return new Csv.RecordReader(new BufferedReader(new StringReader(text)), multiline);
+	}
+}
@@ -0,0 +1,116 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.devsuperior.dscatalog.projections.IdProjection;
+
+/**
+ * Time and allocation per page of {@link OrderedJoin} against the map based
+ * merge it replaced, run with {@code mvn test -Pbenchmark}. Times are only
+ * logged; bytes allocated per page ({@code gc.alloc.rate.norm}) do not depend
+ * on the machine, so the join must allocate less than the merge.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedJoinBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderedJoinBenchmark.class);
+
+	@Param({ "12", "100", "1000" })
+	private int pageSize;
+
+	private List<Row> order;
+	private List<Row> rows;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		order = new ArrayList<>();
+		for (int i = 0; i < pageSize; i++) {
+			order.add(new Row(random.nextLong(1_000_000L)));
+		}
+		rows = new ArrayList<>(order);
+		Collections.shuffle(rows, random);
+	}
+
+	@Benchmark
+	public List<IdProjection<Long>> hashMapReplace() {
+		Map<Long, IdProjection<Long>> map = new HashMap<>();
+		for (IdProjection<Long> obj : rows) {
+			map.put(obj.getId(), obj);
+		}
+		List<IdProjection<Long>> result = new ArrayList<>();
+		for (IdProjection<Long> obj : order) {
+			result.add(map.get(obj.getId()));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<Row> orderedJoin() {
+		return OrderedJoin.join(order, rows, OrderedJoin.Missing.SKIP);
+	}
+
+	@Tag("benchmark")
+	@Test
+	public void orderedJoinShouldAllocateLessPerPageThanMapMerge() throws RunnerException {
+		Collection<RunResult> results = new Runner(new OptionsBuilder()
+				.include(OrderedJoinBenchmark.class.getName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+
+		Map<String, Double> bytes = new HashMap<>();
+		for (RunResult result : results) {
+			String benchmark = result.getParams().getBenchmark();
+			String name = benchmark.substring(benchmark.lastIndexOf('.') + 1) + " " + result.getParams().getParam("pageSize");
+			double allocated = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+			logger.info("{}: {} ns, {} B per page", name, Math.round(result.getPrimaryResult().getScore()), Math.round(allocated));
+			bytes.put(name, allocated);
+		}
+		for (String pageSize : new String[] { "12", "100", "1000" }) {
+			Assertions.assertTrue(bytes.get("orderedJoin " + pageSize) < bytes.get("hashMapReplace " + pageSize));
+		}
+	}
+
+	public record Row(Long id) implements IdProjection<Long> {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+	}
+}
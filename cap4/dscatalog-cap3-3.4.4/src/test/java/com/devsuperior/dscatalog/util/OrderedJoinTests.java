@@ -0,0 +1,92 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.projections.IdProjection;
+
+public class OrderedJoinTests {
+
+	@Test
+	public void joinShouldReturnRowsInOrderOfIds() {
+		List<Row<Long>> order = rows(5L, 3L, 9L, 1L);
+		List<Row<Long>> rows = rows(1L, 3L, 5L, 9L);
+
+		List<Row<Long>> result = OrderedJoin.join(order, rows, OrderedJoin.Missing.FAIL);
+
+		Assertions.assertEquals(List.of(5L, 3L, 9L, 1L), ids(result));
+		Assertions.assertSame(rows.get(2), result.get(0));
+	}
+
+	@Test
+	public void joinShouldSkipMissingRowsWhenMissingIsSkip() {
+		List<Row<Long>> result = OrderedJoin.join(rows(4L, 2L, 7L), rows(7L, 4L), OrderedJoin.Missing.SKIP);
+
+		Assertions.assertEquals(List.of(4L, 7L), ids(result));
+	}
+
+	@Test
+	public void joinShouldThrowIllegalStateExceptionWhenRowIsMissingAndMissingIsFail() {
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			OrderedJoin.join(rows(4L, 2L), rows(4L), OrderedJoin.Missing.FAIL);
+		});
+	}
+
+	@Test
+	public void joinShouldMatchOtherIdTypes() {
+		List<Row<String>> result = OrderedJoin.join(rows("b", "c", "a"), rows("a", "b", "c", "d"), OrderedJoin.Missing.FAIL);
+
+		Assertions.assertEquals(List.of("b", "c", "a"), ids(result));
+	}
+
+	@Test
+	public void joinByLongIdShouldHandleCollidingAndLargePages() {
+		List<Row<Long>> order = new ArrayList<>();
+		List<Row<Long>> rows = new ArrayList<>();
+		for (long i = 0; i < 5000; i++) {
+			order.add(new Row<>((4999 - i) * 1024));
+			rows.add(new Row<>(i * 1024));
+		}
+
+		List<Row<Long>> result = OrderedJoin.joinByLongId(order, rows, OrderedJoin.Missing.FAIL);
+
+		Assertions.assertEquals(ids(order), ids(result));
+		// the table of the thread is reused and must not keep ids of the previous join
+		Assertions.assertTrue(OrderedJoin.joinByLongId(rows(0L), rows(1024L), OrderedJoin.Missing.SKIP).isEmpty());
+	}
+
+	@Test
+	public void joinByLongIdShouldClearTheIdsOfAFailedJoin() {
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			OrderedJoin.joinByLongId(rows(2L, 8L), rows(2L, 3L, 5L), OrderedJoin.Missing.FAIL);
+		});
+
+		List<Row<Long>> result = OrderedJoin.joinByLongId(rows(5L, 7L, 3L), rows(7L), OrderedJoin.Missing.SKIP);
+
+		Assertions.assertEquals(List.of(7L), ids(result));
+	}
+
+	@SafeVarargs
+	private static <ID> List<Row<ID>> rows(ID... ids) {
+		List<Row<ID>> result = new ArrayList<>();
+		for (ID id : ids) {
+			result.add(new Row<>(id));
+		}
+		return result;
+	}
+
+	private static <ID> List<ID> ids(List<Row<ID>> rows) {
+		return rows.stream().map(Row::getId).toList();
+	}
+
+	private record Row<ID>(ID id) implements IdProjection<ID> {
+
+		@Override
+		public ID getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String PRODUCTS = "products";
+	public static final String CATEGORIES = "categories";
+
+	@Value("${cache.products.max-size}")
+	private Long productsMaxSize;
+
+	@Value("${cache.products.ttl}")
+	private Duration productsTtl;
+
+	@Value("${cache.categories.ttl}")
+	private Duration categoriesTtl;
+
+	@Bean
+	CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setAllowNullValues(false);
+		cacheManager.registerCustomCache(PRODUCTS, Caffeine.newBuilder()
+				.maximumSize(productsMaxSize)
+				.expireAfterWrite(productsTtl)
+				.recordStats()
+				.build());
+		cacheManager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+				.maximumSize(1)
+				.expireAfterWrite(categoriesTtl)
+				.recordStats()
+				.build());
+		// evictions issued inside a transaction only run after it commits
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
@@ -6,14 +6,24 @@ import org.springframework.security.core.GrantedAuthority;
 
 public class CustomUserAuthorities {
 
+	private Long userId;
 	private String username;
 	private Collection<? extends GrantedAuthority> authorities;
 
 	public CustomUserAuthorities(String username, Collection<? extends GrantedAuthority> authorities) {
+		this(null, username, authorities);
+	}
+
+	public CustomUserAuthorities(Long userId, String username, Collection<? extends GrantedAuthority> authorities) {
+		this.userId = userId;
 		this.username = username;
 		this.authorities = authorities;
 	}
 
+	public Long getUserId() {
+		return userId;
+	}
+
 	public String getUsername() {
 		return username;
 	}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.services.ProductService;
@@ -45,6 +46,16 @@ public class ProductController {
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping(value = "/cursor")
+    public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllByCursor(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "count", defaultValue = "false") boolean count,
+            Pageable pageable) {
+        CursorPageDTO<ProductMinDTO> dto = service.findAllByCursor(name, cursor, pageable, count);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping
     public ResponseEntity<ProductDTO> insert(@Valid @RequestBody ProductDTO dto) {
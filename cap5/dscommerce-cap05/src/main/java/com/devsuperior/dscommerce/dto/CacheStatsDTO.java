@@ -0,0 +1,49 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsDTO {
+
+	private String name;
+	private Long size;
+	private Long hitCount;
+	private Long missCount;
+	private Double hitRate;
+	private Long evictionCount;
+
+	public CacheStatsDTO() {
+	}
+
+	public CacheStatsDTO(String name, Long size, CacheStats stats) {
+		this.name = name;
+		this.size = size;
+		hitCount = stats.hitCount();
+		missCount = stats.missCount();
+		hitRate = stats.hitRate();
+		evictionCount = stats.evictionCount();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public Long getHitCount() {
+		return hitCount;
+	}
+
+	public Long getMissCount() {
+		return missCount;
+	}
+
+	public Double getHitRate() {
+		return hitRate;
+	}
+
+	public Long getEvictionCount() {
+		return evictionCount;
+	}
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private String next;
+    private Long totalElements;
+
+    public CursorPageDTO(List<T> content, String next, Long totalElements) {
+        this.content = content;
+        this.next = next;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public boolean isLast() {
+        return next == null;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
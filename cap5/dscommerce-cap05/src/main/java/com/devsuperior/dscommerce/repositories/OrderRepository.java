@@ -1,9 +1,19 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.dscommerce.entities.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @Query("SELECT DISTINCT obj FROM Order obj "
+            + "JOIN FETCH obj.client "
+            + "LEFT JOIN FETCH obj.payment "
+            + "LEFT JOIN FETCH obj.items item "
+            + "LEFT JOIN FETCH item.id.product "
+            + "WHERE obj.id = :id")
+    Optional<Order> searchByIdWithItems(Long id);
 }
@@ -1,14 +1,25 @@
 package com.devsuperior.dscommerce.repositories;
 
 import com.devsuperior.dscommerce.entities.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT obj FROM Product obj " +
-            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "OR UPPER(obj.description) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<Product> searchByNameOrDescription(String name, Pageable pageable);
+
+    Window<Product> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    long countByNameContainingIgnoreCase(String name);
 }
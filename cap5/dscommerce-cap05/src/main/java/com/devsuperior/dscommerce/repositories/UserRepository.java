@@ -12,7 +12,7 @@ import com.devsuperior.dscommerce.projections.UserDetailsProjection;
 public interface UserRepository extends JpaRepository<User, Long> {
 
 	@Query(nativeQuery = true, value = """
-				SELECT tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority
+				SELECT tb_user.id AS userId, tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority
 				FROM tb_user
 				INNER JOIN tb_user_role ON tb_user.id = tb_user_role.user_id
 				INNER JOIN tb_role ON tb_role.id = tb_user_role.role_id
@@ -1,16 +1,21 @@
 package com.devsuperior.dscommerce.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.devsuperior.dscommerce.util.LoggedUser;
 
 @Service
 public class AuthService {
 
 	@Autowired
 	private UserService userService;
+
+	@Autowired
+	private CustomUserUtil customUserUtil;
 	
 //	public void validateSelfOrAdmin(long userId) {
 //		User me = userService.authenticated();
@@ -20,12 +25,22 @@ public class AuthService {
 //	}
 
 	public void validateSelfOrAdmin(Long userId) {
-		User me = userService.authenticated();
+		LoggedUser me = loggedUser();
 		if (me.hasRole("ROLE_ADMIN")) {
 			return;
 		}
-		if (!me.getId().equals(userId)) {
+		Long myId = (me.id() != null) ? me.id() : userService.authenticated().getId();
+		if (!myId.equals(userId)) {
 			throw new ForbiddenException("Access denied. Should be self or admin");
 		}
 	}
+
+	private LoggedUser loggedUser() {
+		try {
+			return customUserUtil.getLoggedUser();
+		}
+		catch (Exception e) {
+			throw new UsernameNotFoundException("Invalid user");
+		}
+	}
 }
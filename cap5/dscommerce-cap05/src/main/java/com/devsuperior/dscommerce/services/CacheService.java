@@ -0,0 +1,29 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+
+@Service
+public class CacheService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public List<CacheStatsDTO> findAllStats() {
+        List<CacheStatsDTO> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                result.add(new CacheStatsDTO(name, nativeCache.estimatedSize(), nativeCache.stats()));
+            }
+        }
+        return result;
+    }
+}
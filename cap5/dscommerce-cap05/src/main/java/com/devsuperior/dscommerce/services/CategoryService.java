@@ -3,9 +3,11 @@ package com.devsuperior.dscommerce.services;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.config.CacheConfig;
 import com.devsuperior.dscommerce.dto.CategoryDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
@@ -16,6 +18,7 @@ public class CategoryService {
     @Autowired
     private CategoryRepository repository;
 
+    @Cacheable(CacheConfig.CATEGORIES)
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
         List<Category> result = repository.findAll();
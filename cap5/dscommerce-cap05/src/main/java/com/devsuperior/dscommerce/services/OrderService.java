@@ -1,6 +1,10 @@
 package com.devsuperior.dscommerce.services;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,11 +17,12 @@ import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 
+import jakarta.persistence.EntityNotFoundException;
+
 @Service
 public class OrderService {
 
@@ -27,9 +32,6 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
     
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-    
     @Autowired
     private UserService userService;
     
@@ -38,7 +40,8 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        // client, payment, items and products come in one query, so OrderDTO triggers no lazy loads
+        Order order = repository.searchByIdWithItems(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
         return new OrderDTO(order);
@@ -55,14 +58,21 @@ public class OrderService {
     	User user = userService.authenticated();
     	order.setClient(user);
     	
+    	List<Long> productIds = dto.getItems().stream().map(OrderItemDTO::getProductId).distinct().toList();
+    	Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+    			.collect(Collectors.toMap(Product::getId, Function.identity()));
+    	
     	for (OrderItemDTO itemDto : dto.getItems()) {
-    		Product product = productRepository.getReferenceById(itemDto.getProductId());
+    		Product product = products.get(itemDto.getProductId());
+    		if (product == null) {
+    			throw new EntityNotFoundException("Produto não encontrado: " + itemDto.getProductId());
+    		}
     		OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
     		order.getItems().add(item);
     	}
     	
+    	// items are cascaded from the order and flushed as one JDBC batch
     	order = repository.save(order);
-    	orderItemRepository.saveAll(order.getItems());
     	
     	return new OrderDTO(order);
 	}
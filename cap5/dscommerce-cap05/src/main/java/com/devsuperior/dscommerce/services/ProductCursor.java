@@ -0,0 +1,101 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.devsuperior.dscommerce.services.exceptions.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Continuation token of the product listing in cursor mode.
+ * <p>
+ * The token is the sort and the sort keys of the last product returned,
+ * encoded as url-safe Base64 JSON. Clients treat it as opaque; the sort is
+ * carried along so every page of a listing uses the same order.
+ */
+record ProductCursor(Sort sort, Map<String, Object> keys) {
+
+    static final Set<String> SORTABLE = Set.of("id", "name", "price");
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    static Sort validSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new InvalidCursorException("Ordenação inválida: " + order.getProperty());
+            }
+        }
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    ScrollPosition position() {
+        return ScrollPosition.forward(keys);
+    }
+
+    String encode() {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.getProperty() + "," + order.getDirection());
+        }
+        Token token = new Token(orders, keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(token));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static ProductCursor of(Sort sort, KeysetScrollPosition position) {
+        return new ProductCursor(sort, position.getKeys());
+    }
+
+    static ProductCursor decode(String value) {
+        try {
+            Token token = mapper.readValue(Base64.getUrlDecoder().decode(value.getBytes(StandardCharsets.US_ASCII)), Token.class);
+            if (token.sort() == null || token.keys() == null) {
+                throw new InvalidCursorException("Cursor inválido");
+            }
+            List<Sort.Order> orders = new ArrayList<>();
+            for (String order : token.sort()) {
+                String[] parts = order.split(",");
+                if (parts.length != 2) {
+                    throw new InvalidCursorException("Cursor inválido");
+                }
+                orders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+            }
+            Sort sort = validSort(Sort.by(orders));
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : sort) {
+                Object key = token.keys().get(order.getProperty());
+                if (key == null) {
+                    throw new InvalidCursorException("Cursor inválido");
+                }
+                keys.put(order.getProperty(), switch (order.getProperty()) {
+                    case "id" -> ((Number) key).longValue();
+                    case "price" -> ((Number) key).doubleValue();
+                    default -> key.toString();
+                });
+            }
+            return new ProductCursor(sort, keys);
+        }
+        catch (IOException | IllegalArgumentException | ClassCastException e) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+    }
+
+    private record Token(List<String> sort, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * In-memory trigram index over product name and description.
+ * <p>
+ * The index is built in background when the application starts and is kept
+ * current by {@link ProductService} on insert, update and delete. While it is
+ * warming, {@link #search(String, Pageable)} returns empty so the caller can
+ * fall back to
+ * {@link ProductRepository#searchByNameOrDescription(String, Pageable)}, which
+ * matches the same fields.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+    private static final int WARMUP_PAGE_SIZE = 1000;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Set<Long> touchedWhileWarming = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready = false;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            ready = false;
+            touchedWhileWarming.clear();
+            documents.clear();
+            postings.clear();
+        }
+        try {
+            Page<Product> page;
+            int pageNumber = 0;
+            do {
+                page = repository.findAll(PageRequest.of(pageNumber++, WARMUP_PAGE_SIZE, Sort.by("id")));
+                for (Product product : page) {
+                    load(Document.of(product));
+                }
+            } while (page.hasNext());
+            synchronized (this) {
+                ready = true;
+                touchedWhileWarming.clear();
+            }
+            logger.info("Product search index ready with {} products", documents.size());
+        }
+        catch (RuntimeException e) {
+            logger.error("Failed to build product search index, searches will use the database", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product product) {
+        Document document = Document.of(product);
+        afterCommit(() -> put(document));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> delete(id));
+    }
+
+    /**
+     * Products whose name or description contains {@code text}, ignoring case.
+     * Without an explicit sort, name matches rank above description-only matches
+     * and names starting with the text rank first.
+     */
+    public Optional<Page<ProductMinDTO>> search(String text, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Comparator<Document> comparator = comparatorFor(pageable.getSort());
+        if (comparator == null) {
+            return Optional.empty();
+        }
+
+        String query = normalize(text);
+        List<Document> matches = new ArrayList<>();
+        for (Long id : candidates(query)) {
+            Document document = documents.get(id);
+            if (document != null && document.rank(query) >= 0) {
+                matches.add(document);
+            }
+        }
+
+        if (pageable.getSort().isUnsorted()) {
+            comparator = Comparator.comparingInt((Document x) -> x.rank(query)).thenComparing(comparator);
+        }
+        matches.sort(comparator);
+
+        List<ProductMinDTO> content = new ArrayList<>();
+        if (pageable.isPaged()) {
+            long from = Math.min(pageable.getOffset(), matches.size());
+            long to = Math.min(from + pageable.getPageSize(), matches.size());
+            for (Document document : matches.subList((int) from, (int) to)) {
+                content.add(document.product());
+            }
+        }
+        else {
+            matches.forEach(x -> content.add(x.product()));
+        }
+        return Optional.of(new PageImpl<>(content, pageable, matches.size()));
+    }
+
+    private Iterable<Long> candidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+        Set<Long> smallest = null;
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        Set<Long> result = new HashSet<>(smallest);
+        for (Set<Long> ids : lists) {
+            if (ids != smallest) {
+                result.retainAll(ids);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void load(Document document) {
+        if (!touchedWhileWarming.contains(document.id())) {
+            link(document);
+        }
+    }
+
+    private synchronized void put(Document document) {
+        if (!ready) {
+            touchedWhileWarming.add(document.id());
+        }
+        link(document);
+    }
+
+    private synchronized void delete(Long id) {
+        if (!ready) {
+            touchedWhileWarming.add(id);
+        }
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    private void link(Document document) {
+        Document previous = documents.put(document.id(), document);
+        if (previous != null) {
+            unlink(previous);
+        }
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, x -> ConcurrentHashMap.newKeySet()).add(document.id());
+        }
+    }
+
+    private void unlink(Document document) {
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(document.id());
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+
+    private static Comparator<Document> comparatorFor(Sort sort) {
+        Comparator<Document> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Document> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(x -> x.product().getId());
+                case "name" -> Comparator.comparing(x -> x.product().getName(), Comparator.nullsLast(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparing(x -> x.product().getPrice(), Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = (result == null) ? next : result.thenComparing(next);
+        }
+        Comparator<Document> byId = Comparator.comparing(x -> x.product().getId());
+        return (result == null) ? byId : result.thenComparing(byId);
+    }
+
+    private static String normalize(String text) {
+        return (text == null) ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private record Document(ProductMinDTO product, String name, String description) {
+
+        static Document of(Product entity) {
+            return new Document(new ProductMinDTO(entity), normalize(entity.getName()), normalize(entity.getDescription()));
+        }
+
+        Long id() {
+            return product.getId();
+        }
+
+        /**
+         * Recomputed on link and unlink rather than kept per document, which
+         * would hold a set of strings for every product in the catalog.
+         */
+        Set<String> grams() {
+            Set<String> grams = trigrams(name);
+            grams.addAll(trigrams(description));
+            return grams;
+        }
+
+        int rank(String query) {
+            if (name.startsWith(query)) {
+                return 0;
+            }
+            if (name.contains(query)) {
+                return 1;
+            }
+            if (description.contains(query)) {
+                return 2;
+            }
+            return -1;
+        }
+    }
+}
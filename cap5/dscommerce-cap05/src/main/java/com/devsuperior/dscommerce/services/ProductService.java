@@ -1,14 +1,23 @@
 package com.devsuperior.dscommerce.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.config.CacheConfig;
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.entities.Category;
@@ -27,6 +36,10 @@ public class ProductService {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
         Product product = repository.findById(id).orElseThrow(
@@ -36,8 +49,41 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+        return searchIndex.search(name, pageable).orElseGet(() -> {
+            Page<Product> result = repository.searchByNameOrDescription(name, pageable);
+            return result.map(x -> new ProductMinDTO(x));
+        });
+    }
+
+    /**
+     * Keyset pagination: each page continues after the sort keys carried by
+     * {@code cursor}, so deep pages cost the same as the first one. The total
+     * is only counted when {@code withCount} is set.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductMinDTO> findAllByCursor(String name, String cursor, Pageable pageable, boolean withCount) {
+        Sort sort;
+        ScrollPosition position;
+        if (cursor == null || cursor.isBlank()) {
+            sort = ProductCursor.validSort(pageable.getSort());
+            position = ScrollPosition.keyset();
+        }
+        else {
+            ProductCursor previous = ProductCursor.decode(cursor);
+            sort = previous.sort();
+            position = previous.position();
+        }
+
+        // without a filter the seek can walk the (name, id) and (price, id) indexes
+        Window<Product> window = name.isEmpty()
+                ? repository.findBy(position, sort, Limit.of(pageable.getPageSize()))
+                : repository.findByNameContainingIgnoreCase(name, position, sort, Limit.of(pageable.getPageSize()));
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            next = ProductCursor.of(sort, (KeysetScrollPosition) window.positionAt(window.size() - 1)).encode();
+        }
+        Long total = withCount ? repository.countByNameContainingIgnoreCase(name) : null;
+        return new CursorPageDTO<>(window.map(x -> new ProductMinDTO(x)).getContent(), next, total);
     }
 
     @Transactional
@@ -45,15 +91,18 @@ public class ProductService {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
+        searchIndex.index(entity);
         return new ProductDTO(entity);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
         try {
             Product entity = repository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
+            searchIndex.index(entity);
             return new ProductDTO(entity);
         }
         catch (EntityNotFoundException e) {
@@ -61,13 +110,15 @@ public class ProductService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
     	if (!repository.existsById(id)) {
     		throw new ResourceNotFoundException("Recurso não encontrado");
     	}
     	try {
-            repository.deleteById(id);    		
+            repository.deleteById(id);
+            searchIndex.remove(id);
     	}
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
@@ -37,6 +37,7 @@ public class UserService implements UserDetailsService {
 		}
 		
 		User user = new User();
+		user.setId(result.get(0).getUserId());
 		user.setEmail(result.get(0).getUsername());
 		user.setPassword(result.get(0).getPassword());
 		for (UserDetailsProjection projection : result) {
@@ -1,5 +1,7 @@
 package com.devsuperior.dscommerce.util;
 
+import java.util.List;
+
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -9,8 +11,19 @@ import org.springframework.stereotype.Component;
 public class CustomUserUtil {
 
     public String getLoggedUserName() {
+        return getJwt().getClaim("username");
+    }
+
+    public LoggedUser getLoggedUser() {
+        Jwt jwt = getJwt();
+        Number id = jwt.getClaim("user_id");
+        List<String> authorities = jwt.getClaimAsStringList("authorities");
+        return new LoggedUser(id == null ? null : id.longValue(), jwt.getClaim("username"),
+                authorities == null ? List.of() : authorities);
+    }
+
+    private Jwt getJwt() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-        return jwtPrincipal.getClaim("username");
+        return (Jwt) authentication.getPrincipal();
     }
 }
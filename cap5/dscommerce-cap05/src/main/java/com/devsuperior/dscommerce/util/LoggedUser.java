@@ -0,0 +1,15 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.List;
+
+/**
+ * Logged user as described by the access token, available without loading
+ * the {@code User} entity. {@code id} is null for tokens issued before the
+ * {@code user_id} claim existed.
+ */
+public record LoggedUser(Long id, String username, List<String> authorities) {
+
+    public boolean hasRole(String roleName) {
+        return authorities.contains(roleName);
+    }
+}
@@ -0,0 +1,131 @@
+package com.devsuperior.dscommerce.config;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.services.CategoryService;
+import com.devsuperior.dscommerce.services.ProductService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: evictions only run after the transaction of the write
+ * commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheConfigTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Cache products;
+    private ProductDTO dto;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        products.clear();
+        cacheManager.getCache(CacheConfig.CATEGORIES).clear();
+
+        dto = new ProductDTO(null, "Cached Phone", "Phone kept in the product cache", 100.0, null);
+        dto.getCategories().add(new CategoryDTO(1L, null));
+    }
+
+    @Test
+    public void findByIdShouldBeServedFromCacheOnSecondCall() {
+        Long id = productService.insert(dto).getId();
+        try {
+            CacheStats before = stats(CacheConfig.PRODUCTS);
+
+            ProductDTO first = productService.findById(id);
+            ProductDTO second = productService.findById(id);
+
+            CacheStats after = stats(CacheConfig.PRODUCTS).minus(before);
+            Assertions.assertSame(first, second);
+            Assertions.assertEquals(1L, after.missCount());
+            Assertions.assertEquals(1L, after.hitCount());
+        }
+        finally {
+            productService.delete(id);
+        }
+    }
+
+    @Test
+    public void updateAndDeleteShouldEvictTheProduct() {
+        Long id = productService.insert(dto).getId();
+        try {
+            productService.findById(id);
+            ProductDTO changed = new ProductDTO(id, "Renamed Phone", dto.getDescription(), 200.0, null);
+            changed.getCategories().add(new CategoryDTO(1L, null));
+
+            productService.update(id, changed);
+
+            Assertions.assertNull(products.get(id));
+            Assertions.assertEquals("Renamed Phone", productService.findById(id).getName());
+        }
+        finally {
+            productService.delete(id);
+        }
+        Assertions.assertNull(products.get(id));
+    }
+
+    @Test
+    public void findAllCategoriesShouldBeServedFromCacheOnSecondCall() {
+        CacheStats before = stats(CacheConfig.CATEGORIES);
+
+        categoryService.findAll();
+        categoryService.findAll();
+
+        CacheStats after = stats(CacheConfig.CATEGORIES).minus(before);
+        Assertions.assertEquals(1L, after.missCount());
+        Assertions.assertEquals(1L, after.hitCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void findAllStatsShouldReturnStatsOfEveryCacheWhenAdminLogged() throws Exception {
+        productService.findById(1L);
+        productService.findById(1L);
+
+        mockMvc.perform(get("/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.name == 'products')].size").value(1))
+                .andExpect(jsonPath("$[?(@.name == 'products')].hitCount").exists())
+                .andExpect(jsonPath("$[?(@.name == 'categories')].size").value(0));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void findAllStatsShouldReturnForbiddenWhenClientLogged() throws Exception {
+        mockMvc.perform(get("/caches"))
+                .andExpect(status().isForbidden());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheStats stats(String name) {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager.getCache(name).getNativeCache()).stats();
+    }
+}
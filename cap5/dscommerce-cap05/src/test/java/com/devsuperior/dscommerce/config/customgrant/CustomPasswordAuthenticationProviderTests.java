@@ -0,0 +1,198 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import com.devsuperior.dscommerce.config.ExpiringOAuth2AuthorizationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2AccessTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContext;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContextHolder;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CustomPasswordAuthenticationProviderTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomPasswordAuthenticationProviderTests.class);
+
+    private static final int CLIENTS = 64;
+    private static final int LOGINS_PER_CLIENT = 500;
+
+    private CustomPasswordAuthenticationProvider provider;
+    private ExpiringOAuth2AuthorizationService authorizationService;
+    private RegisteredClient registeredClient;
+    private AuthorizationServerContext serverContext;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registeredClient = RegisteredClient.withId("myclientid")
+                .clientId("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .scope("read")
+                .scope("write")
+                .build();
+
+        UserDetailsService userDetailsService = username -> {
+            if (!username.startsWith("user")) {
+                throw new UsernameNotFoundException("Email not found");
+            }
+            return User.withUsername(username).password("secret-" + username).authorities("ROLE_CLIENT").build();
+        };
+
+        PasswordEncoder passwordEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "secret-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+
+        // Token value carries the username found in the principal details, so a mixed-up login is visible
+        OAuth2TokenGenerator<OAuth2AccessToken> tokenGenerator = context -> {
+            CustomUserAuthorities user = (CustomUserAuthorities) ((Authentication) context.getPrincipal()).getDetails();
+            Instant now = Instant.now();
+            return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                    user.getUsername() + ":" + UUID.randomUUID(), now, now.plus(Duration.ofMinutes(5)));
+        };
+
+        authorizationService = new ExpiringOAuth2AuthorizationService(Duration.ofMinutes(5), CLIENTS * LOGINS_PER_CLIENT);
+        provider = new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator, userDetailsService, passwordEncoder);
+
+        AuthorizationServerSettings settings = AuthorizationServerSettings.builder().build();
+        serverContext = new AuthorizationServerContext() {
+            @Override
+            public String getIssuer() {
+                return "http://localhost:8080";
+            }
+
+            @Override
+            public AuthorizationServerSettings getAuthorizationServerSettings() {
+                return settings;
+            }
+        };
+    }
+
+    @Test
+    public void authenticateShouldIssueTokenForUserWhenCredentialsAreValid() {
+        OAuth2AccessTokenAuthenticationToken result = login("user1", "user1");
+
+        Assertions.assertTrue(result.getAccessToken().getTokenValue().startsWith("user1:"));
+        OAuth2Authorization authorization = authorizationService.findByToken(result.getAccessToken().getTokenValue(), OAuth2TokenType.ACCESS_TOKEN);
+        Assertions.assertEquals("user1", authorization.getPrincipalName());
+    }
+
+    @Test
+    public void authenticateShouldThrowOAuth2AuthenticationExceptionWhenPasswordIsInvalid() {
+        Assertions.assertThrows(OAuth2AuthenticationException.class, () -> login("user1", "user2"));
+    }
+
+    @Test
+    public void authenticateShouldThrowOAuth2AuthenticationExceptionWhenUserDoesNotExist() {
+        Assertions.assertThrows(OAuth2AuthenticationException.class, () -> login("nobody", "nobody"));
+    }
+
+    @Test
+    public void authenticateShouldIssueTokenForOwnUserWhenClientsLoginConcurrently() throws Exception {
+        Assertions.assertEquals(CLIENTS * LOGINS_PER_CLIENT * 9 / 10, loginConcurrently());
+    }
+
+    @Tag("benchmark")
+    @Test
+    public void authenticateShouldReportTokenThroughputWhenClientsLoginConcurrently() throws Exception {
+        // warm up, then measure against an empty authorization store again
+        loginConcurrently();
+        setUp();
+
+        long startTime = System.nanoTime();
+        int issued = loginConcurrently();
+        long elapsed = System.nanoTime() - startTime;
+
+        logger.info("Issued {} tokens with {} concurrent clients: {} tokens/s",
+                issued, CLIENTS, issued * 1_000_000_000L / elapsed);
+        Assertions.assertEquals(CLIENTS * LOGINS_PER_CLIENT * 9 / 10, issued);
+    }
+
+    /**
+     * Each client logs in as its own user, and every tenth attempt uses another
+     * user's password. Returns the number of tokens issued.
+     */
+    private int loginConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < CLIENTS; i++) {
+            String username = "user" + i;
+            String otherUsername = "user" + ((i + 1) % CLIENTS);
+            results.add(executor.submit(() -> {
+                start.await();
+                int issued = 0;
+                for (int j = 0; j < LOGINS_PER_CLIENT; j++) {
+                    if (j % 10 == 0) {
+                        Assertions.assertThrows(OAuth2AuthenticationException.class, () -> login(username, otherUsername));
+                        continue;
+                    }
+                    OAuth2AccessTokenAuthenticationToken result = login(username, username);
+                    String tokenValue = result.getAccessToken().getTokenValue();
+                    Assertions.assertTrue(tokenValue.startsWith(username + ":"), tokenValue);
+                    Assertions.assertEquals(username, authorizationService
+                            .findByToken(tokenValue, OAuth2TokenType.ACCESS_TOKEN).getPrincipalName());
+                    issued++;
+                }
+                return issued;
+            }));
+        }
+
+        start.countDown();
+        int issued = 0;
+        for (Future<Integer> result : results) {
+            issued += result.get();
+        }
+        executor.shutdown();
+        return issued;
+    }
+
+    private OAuth2AccessTokenAuthenticationToken login(String username, String password) {
+        AuthorizationServerContextHolder.setContext(serverContext);
+        try {
+            OAuth2ClientAuthenticationToken clientPrincipal = new OAuth2ClientAuthenticationToken(
+                    registeredClient, ClientAuthenticationMethod.CLIENT_SECRET_BASIC, null);
+            CustomPasswordAuthenticationToken authentication = new CustomPasswordAuthenticationToken(clientPrincipal, null,
+                    Map.of("username", username, "password", password));
+            return (OAuth2AccessTokenAuthenticationToken) provider.authenticate(authentication);
+        }
+        finally {
+            AuthorizationServerContextHolder.resetContext();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.devsuperior.dscommerce.repositories;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderRepositoryTests {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long existingOrderId, nonExistingOrderId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        existingOrderId = 1L;
+        nonExistingOrderId = 1000L;
+    }
+
+    @Test
+    public void searchByIdWithItemsShouldReturnOrderWhenIdExists() {
+        OrderDTO result = new OrderDTO(repository.searchByIdWithItems(existingOrderId).orElseThrow());
+
+        Assertions.assertEquals(existingOrderId, result.getId());
+        Assertions.assertEquals(2, result.getItems().size());
+        Assertions.assertNotNull(result.getClient().getName());
+        Assertions.assertNotNull(result.getPayment());
+    }
+
+    @Test
+    public void searchByIdWithItemsShouldReturnEmptyWhenIdDoesNotExist() {
+        Assertions.assertTrue(repository.searchByIdWithItems(nonExistingOrderId).isEmpty());
+    }
+
+    @Test
+    public void searchByIdWithItemsShouldUseSingleQueryRegardlessOfItemCount() {
+        long fewItemsQueries = countQueriesToBuildOrderDTO();
+
+        Order order = entityManager.find(Order.class, existingOrderId);
+        for (long productId = 4L; productId <= 20L; productId++) {
+            Product product = entityManager.find(Product.class, productId);
+            entityManager.persist(new OrderItem(order, product, 1, product.getPrice()));
+        }
+        entityManager.flush();
+        long manyItemsQueries = countQueriesToBuildOrderDTO();
+
+        Assertions.assertEquals(1L, fewItemsQueries);
+        Assertions.assertEquals(1L, manyItemsQueries);
+    }
+
+    private long countQueriesToBuildOrderDTO() {
+        entityManager.clear();
+        statistics.clear();
+        OrderDTO dto = new OrderDTO(repository.searchByIdWithItems(existingOrderId).orElseThrow());
+        Assertions.assertFalse(dto.getItems().isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+}
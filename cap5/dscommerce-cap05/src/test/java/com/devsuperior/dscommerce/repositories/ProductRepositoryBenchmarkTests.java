@@ -0,0 +1,94 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.entities.Product;
+
+/**
+ * Timing of offset against keyset pages on a large catalog. Tagged
+ * "benchmark", so it only runs with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+public class ProductRepositoryBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRepositoryBenchmarkTests.class);
+
+    private static final int CATALOG_SIZE = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 9_999;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Sort sort;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sort = Sort.by("name", "id");
+    }
+
+    /**
+     * Page 1 and page 10,000 of a 200,000 product catalog, by offset and by
+     * keyset. Offset pages scan and discard every row before them and count the
+     * matches on each call; keyset pages seek straight to the previous sort key.
+     */
+    @Test
+    public void keysetDeepPageShouldNotDegradeLikeOffset() {
+        insertProducts(CATALOG_SIZE);
+
+        List<Product> offsetDeep = repository.searchByNameOrDescription("", PageRequest.of(DEEP_PAGE, PAGE_SIZE, sort)).getContent();
+        Product last = repository.searchByNameOrDescription("", PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, sort)).getContent().get(PAGE_SIZE - 1);
+        ScrollPosition deepPosition = ScrollPosition.forward(Map.of("name", last.getName(), "id", last.getId()));
+        Assertions.assertEquals(offsetDeep, repository.findBy(deepPosition, sort, Limit.of(PAGE_SIZE)).getContent());
+        Assertions.assertEquals(offsetDeep, repository.findByNameContainingIgnoreCase("product", deepPosition, sort, Limit.of(PAGE_SIZE)).getContent());
+
+        long offsetFirst = time(() -> repository.searchByNameOrDescription("", PageRequest.of(0, PAGE_SIZE, sort)));
+        long offsetDeepTime = time(() -> repository.searchByNameOrDescription("", PageRequest.of(DEEP_PAGE, PAGE_SIZE, sort)));
+        long keysetFirst = time(() -> repository.findBy(ScrollPosition.keyset(), sort, Limit.of(PAGE_SIZE)));
+        long keysetDeepTime = time(() -> repository.findBy(deepPosition, sort, Limit.of(PAGE_SIZE)));
+
+        logger.info("Page 1 / page {} of {} products, by name: offset {} us / {} us, keyset {} us / {} us",
+                DEEP_PAGE + 1, CATALOG_SIZE, offsetFirst / 1000, offsetDeepTime / 1000, keysetFirst / 1000, keysetDeepTime / 1000);
+        Assertions.assertTrue(keysetDeepTime < offsetDeepTime);
+    }
+
+    private void insertProducts(int count) {
+        jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)",
+                IntStream.range(0, count)
+                        .mapToObj(i -> new Object[] { String.format("Product %06d", i % 50_000), (i % 1000) + 0.99, "", "" })
+                        .toList());
+    }
+
+    private long time(Supplier<?> call) {
+        for (int i = 0; i < ROUNDS / 2; i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
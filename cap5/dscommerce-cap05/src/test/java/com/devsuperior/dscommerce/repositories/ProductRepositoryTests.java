@@ -0,0 +1,92 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.entities.Product;
+
+@DataJpaTest
+public class ProductRepositoryTests {
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 40;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Sort sort;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sort = Sort.by("name", "id");
+    }
+
+    @Test
+    public void findByNameContainingIgnoreCaseShouldWalkEveryProductOnce() {
+        long total = repository.countByNameContainingIgnoreCase("");
+        long visited = 0;
+        Long previousId = null;
+        Window<Product> window = repository.findByNameContainingIgnoreCase("", ScrollPosition.keyset(), Sort.by("id"), Limit.of(7));
+        while (true) {
+            for (Product product : window) {
+                Assertions.assertTrue(previousId == null || product.getId() > previousId);
+                previousId = product.getId();
+                visited++;
+            }
+            if (!window.hasNext()) {
+                break;
+            }
+            window = repository.findByNameContainingIgnoreCase("", window.positionAt(window.size() - 1), Sort.by("id"), Limit.of(7));
+        }
+
+        Assertions.assertEquals(total, visited);
+    }
+
+    @Test
+    public void keysetDeepPageShouldMatchOffsetPage() {
+        insertProducts(CATALOG_SIZE);
+
+        List<Product> offsetDeep = repository.searchByNameOrDescription("", PageRequest.of(DEEP_PAGE, PAGE_SIZE, sort)).getContent();
+        Product last = repository.searchByNameOrDescription("", PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, sort)).getContent().get(PAGE_SIZE - 1);
+        ScrollPosition deepPosition = ScrollPosition.forward(Map.of("name", last.getName(), "id", last.getId()));
+
+        Assertions.assertEquals(PAGE_SIZE, offsetDeep.size());
+        Assertions.assertEquals(offsetDeep, repository.findBy(deepPosition, sort, Limit.of(PAGE_SIZE)).getContent());
+        Assertions.assertEquals(offsetDeep, repository.findByNameContainingIgnoreCase("product", deepPosition, sort, Limit.of(PAGE_SIZE)).getContent());
+    }
+
+    @Test
+    public void searchByNameOrDescriptionShouldMatchDescriptionIgnoringCase() {
+        jdbcTemplate.update("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)",
+                "Cadeira Gamer", 899.0, "Assento com ajuste LOMBAR", "");
+
+        List<Product> result = repository.searchByNameOrDescription("lombar", PageRequest.of(0, 12)).getContent();
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("Cadeira Gamer", result.get(0).getName());
+    }
+
+    private void insertProducts(int count) {
+        jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)",
+                IntStream.range(0, count)
+                        .mapToObj(i -> new Object[] { String.format("Product %06d", i % 250), (i % 1000) + 0.99, "", "" })
+                        .toList());
+    }
+}
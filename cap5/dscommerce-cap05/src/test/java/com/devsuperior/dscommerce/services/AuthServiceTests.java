@@ -3,6 +3,8 @@ package com.devsuperior.dscommerce.services;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
 import com.devsuperior.dscommerce.tests.UserFactory;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.devsuperior.dscommerce.util.LoggedUser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
+
 @ExtendWith(SpringExtension.class)
 public class AuthServiceTests {
 
@@ -21,6 +25,9 @@ public class AuthServiceTests {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CustomUserUtil customUserUtil;
+
     private User admin, selfClient, otherClient;
 
     @BeforeEach
@@ -34,7 +41,7 @@ public class AuthServiceTests {
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenAdminLogged() {
 
-        Mockito.when(userService.authenticated()).thenReturn(admin);
+        Mockito.when(customUserUtil.getLoggedUser()).thenReturn(loggedUser(admin));
 
         Long userId = admin.getId();
 
@@ -46,7 +53,7 @@ public class AuthServiceTests {
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenSelfLogged() {
 
-        Mockito.when(userService.authenticated()).thenReturn(selfClient);
+        Mockito.when(customUserUtil.getLoggedUser()).thenReturn(loggedUser(selfClient));
         Long userSelfClientId = selfClient.getId();
 
         Assertions.assertDoesNotThrow(() -> {
@@ -57,11 +64,41 @@ public class AuthServiceTests {
     @Test
     public void validateSelfOrAdminShouldThrowForbiddenExceptionWhenOtherClientLogged() {
 
+        Mockito.when(customUserUtil.getLoggedUser()).thenReturn(loggedUser(selfClient));
+        Long otherClientId = otherClient.getId();
+
+        Assertions.assertThrows(ForbiddenException.class, () -> {
+            authService.validateSelfOrAdmin(otherClientId);
+        });
+    }
+
+    @Test
+    public void validateSelfOrAdminShouldNotLoadUserWhenTokenHasUserId() {
+
+        Mockito.when(customUserUtil.getLoggedUser()).thenReturn(loggedUser(selfClient));
+
+        authService.validateSelfOrAdmin(selfClient.getId());
+
+        Mockito.verify(userService, Mockito.never()).authenticated();
+    }
+
+    @Test
+    public void validateSelfOrAdminShouldLoadUserWhenTokenHasNoUserId() {
+
+        Mockito.when(customUserUtil.getLoggedUser()).thenReturn(new LoggedUser(null, "bob", List.of("ROLE_CLIENT")));
         Mockito.when(userService.authenticated()).thenReturn(selfClient);
         Long otherClientId = otherClient.getId();
 
+        Assertions.assertDoesNotThrow(() -> {
+            authService.validateSelfOrAdmin(selfClient.getId());
+        });
         Assertions.assertThrows(ForbiddenException.class, () -> {
             authService.validateSelfOrAdmin(otherClientId);
         });
     }
+
+    private static LoggedUser loggedUser(User user) {
+        List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
+        return new LoggedUser(user.getId(), user.getUsername(), authorities);
+    }
 }
@@ -0,0 +1,126 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statements issued by {@link OrderService#insert(OrderDTO)} against the
+ * database, counted with Hibernate statistics. SQL logging is off so it does
+ * not dominate the throughput benchmark.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(OrderService.class)
+public class OrderServiceStatementTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceStatementTests.class);
+
+    private static final int BENCHMARK_ORDERS = 1_000;
+    private static final int BENCHMARK_ITEMS = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        User client = entityManager.find(User.class, 1L);
+        Mockito.when(userService.authenticated()).thenReturn(client);
+    }
+
+    @Test
+    public void insertShouldUseThreeStatementsRegardlessOfItemCount() {
+        long fewItemsStatements = countStatementsToInsert(orderWithItems(2));
+        long manyItemsStatements = countStatementsToInsert(orderWithItems(20));
+
+        // one product lookup by id IN (...), one order insert and one batch of item inserts
+        Assertions.assertEquals(3L, fewItemsStatements);
+        Assertions.assertEquals(3L, manyItemsStatements);
+    }
+
+    /**
+     * Each order commits in its own transaction, as it does behind the
+     * controller, so the orders are deleted afterwards.
+     */
+    @Tag("benchmark")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void insertShouldSustainOrderThroughput() {
+        Long lastOrderId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_order", Long.class);
+        try {
+            benchmarkInserts();
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM tb_order_item WHERE order_id > ?", lastOrderId);
+            jdbcTemplate.update("DELETE FROM tb_order WHERE id > ?", lastOrderId);
+        }
+    }
+
+    private void benchmarkInserts() {
+        OrderDTO dto = orderWithItems(BENCHMARK_ITEMS);
+        for (int i = 0; i < BENCHMARK_ORDERS / 10; i++) {
+            countStatementsToInsert(dto);
+        }
+
+        long statements = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ORDERS; i++) {
+            statements += countStatementsToInsert(dto);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        logger.info("{} orders of {} items: {} orders/s, {} statements per order",
+                BENCHMARK_ORDERS, BENCHMARK_ITEMS, BENCHMARK_ORDERS * 1_000_000_000L / elapsed, (double) statements / BENCHMARK_ORDERS);
+        Assertions.assertEquals(3L * BENCHMARK_ORDERS, statements);
+    }
+
+    private long countStatementsToInsert(OrderDTO dto) {
+        entityManager.clear();
+        statistics.clear();
+        OrderDTO result = orderService.insert(dto);
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        Assertions.assertEquals(dto.getItems().size(), result.getItems().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private OrderDTO orderWithItems(int count) {
+        OrderDTO dto = new OrderDTO();
+        for (long productId = 1L; productId <= count; productId++) {
+            dto.getItems().add(new OrderItemDTO(productId, null, null, 1, null));
+        }
+        return dto;
+    }
+}
@@ -2,7 +2,6 @@ package com.devsuperior.dscommerce.services;
 
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.entities.*;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
@@ -40,9 +39,6 @@ public class OrderServiceTests {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private OrderItemRepository orderItemRepository;
-
     @Mock
     private UserService userService;
 
@@ -72,14 +68,21 @@ public class OrderServiceTests {
 
     product = ProductFactory.createProduct();
 
-        Mockito.when(orderRepository.findById(existingOrderId)).thenReturn(Optional.of(order));
-        Mockito.when(orderRepository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
-
-        Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-        Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+        Mockito.when(orderRepository.searchByIdWithItems(existingOrderId)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepository.searchByIdWithItems(nonExistingOrderId)).thenReturn(Optional.empty());
+
+        Mockito.when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Product> result = new ArrayList<>();
+            ids.forEach(id -> {
+                if (id.equals(existingProductId)) {
+                    result.add(ProductFactory.createProduct());
+                }
+            });
+            return result;
+        });
 
         Mockito.when(orderRepository.save(any())).thenReturn(order);
-        Mockito.when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
 
     }
 
@@ -156,6 +159,16 @@ public class OrderServiceTests {
         });
     }
 
+    @Test
+    public void insertShouldLoadAllProductsWithSingleQuery() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+
+        orderService.insert(orderDTO);
+
+        Mockito.verify(productRepository, Mockito.times(1)).findAllById(any());
+        Mockito.verify(productRepository, Mockito.never()).getReferenceById(any());
+    }
+
     @Test
     public void insertShouldReturnEntityNotFoundExceptionWhenOrderProductIdDoesNotExist() {
         Mockito.when(userService.authenticated()).thenReturn(client);
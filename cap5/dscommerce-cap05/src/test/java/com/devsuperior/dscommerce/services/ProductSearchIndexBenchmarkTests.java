@@ -0,0 +1,116 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Lookup time of the trigram index over a million products. Tagged
+ * "benchmark", so it only runs with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexBenchmarkTests.class);
+
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int CODE_LENGTH = 8;
+    private static final String CODE_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int SAMPLE_EVERY = 1_000;
+    private static final int ROUNDS = 10;
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final List<String> sampleCodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Random random = new Random(42);
+        Mockito.when(productRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            List<Product> content = new ArrayList<>();
+            for (long id = pageable.getOffset() + 1; id <= Math.min(pageable.getOffset() + pageable.getPageSize(), CATALOG_SIZE); id++) {
+                String code = code(random);
+                if (id % SAMPLE_EVERY == 0) {
+                    sampleCodes.add(code);
+                }
+                content.add(new Product(id, code, null, (double) (id % 1000), ""));
+            }
+            return new PageImpl<>(content, pageable, CATALOG_SIZE);
+        });
+    }
+
+    /**
+     * Looks up a thousand product codes, in full and by their first three
+     * characters, in an index of a million products. Each lookup intersects a
+     * few short posting lists instead of scanning the catalog.
+     */
+    @Test
+    public void searchShouldAnswerInUnderAMillisecondOverOneMillionProducts() {
+        long start = System.nanoTime();
+        searchIndex.rebuild();
+        long rebuild = System.nanoTime() - start;
+        Assertions.assertTrue(searchIndex.isReady());
+
+        Pageable pageable = PageRequest.of(0, 12);
+        for (String code : sampleCodes) {
+            Page<ProductMinDTO> result = searchIndex.search(code.toUpperCase(), pageable).orElseThrow();
+            Assertions.assertTrue(result.getContent().stream().anyMatch(x -> x.getName().equals(code)));
+        }
+
+        long exact = time(() -> sampleCodes.stream().map(x -> searchIndex.search(x, pageable)).toList()) / sampleCodes.size();
+        long prefix = time(() -> sampleCodes.stream().map(x -> searchIndex.search(x.substring(0, 3), pageable)).toList()) / sampleCodes.size();
+
+        logger.info("Index of {} products built in {} ms, lookup of a full code {} us, of a three-character prefix {} us",
+                CATALOG_SIZE, rebuild / 1_000_000, exact / 1000, prefix / 1000);
+        Assertions.assertTrue(exact < 1_000_000);
+        Assertions.assertTrue(prefix < 1_000_000);
+    }
+
+    private static String code(Random random) {
+        StringBuilder sb = new StringBuilder(CODE_LENGTH);
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            sb.append(CODE_CHARS.charAt(random.nextInt(CODE_CHARS.length())));
+        }
+        return sb.toString();
+    }
+
+    private long time(Supplier<?> call) {
+        for (int i = 0; i < ROUNDS / 2; i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
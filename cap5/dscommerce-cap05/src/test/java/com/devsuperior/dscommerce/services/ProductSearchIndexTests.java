@@ -0,0 +1,112 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private Product tv, notebook, phone;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tv = new Product(1L, "Smart TV", "Televisor com tela de 50 polegadas", 2190.0, "");
+        notebook = new Product(2L, "Notebook Dell", "Notebook com tela de 15 polegadas", 4200.0, "");
+        phone = new Product(3L, "Telefone fixo", "Aparelho sem fio", 150.0, "");
+
+        Mockito.when(productRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(tv, notebook, phone)));
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenIndexIsWarming() {
+        Optional<Page<ProductMinDTO>> result = searchIndex.search("tv", PageRequest.of(0, 12));
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void searchShouldMatchNameAndDescriptionIgnoringCaseWithNameMatchesFirst() {
+        searchIndex.rebuild();
+
+        Page<ProductMinDTO> result = searchIndex.search("TEL", PageRequest.of(0, 12)).orElseThrow();
+
+        Assertions.assertEquals(3L, result.getTotalElements());
+        Assertions.assertEquals(phone.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void searchShouldReturnAllProductsWhenNameIsEmpty() {
+        searchIndex.rebuild();
+
+        Page<ProductMinDTO> result = searchIndex.search("", PageRequest.of(0, 12)).orElseThrow();
+
+        Assertions.assertEquals(3L, result.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldPageAndSortResultsWhenSortIsRequested() {
+        searchIndex.rebuild();
+
+        Page<ProductMinDTO> result = searchIndex.search("", PageRequest.of(1, 2, Sort.by("price").descending())).orElseThrow();
+
+        Assertions.assertEquals(3L, result.getTotalElements());
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertEquals(phone.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenSortPropertyIsNotIndexed() {
+        searchIndex.rebuild();
+
+        Optional<Page<ProductMinDTO>> result = searchIndex.search("", PageRequest.of(0, 12, Sort.by("imgUrl")));
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void indexShouldReplacePreviousVersionOfProduct() {
+        searchIndex.rebuild();
+
+        tv.setName("Smart TV Samsung");
+        tv.setDescription("Televisor 4K");
+        searchIndex.index(tv);
+
+        Assertions.assertEquals(1L, searchIndex.search("samsung", PageRequest.of(0, 12)).orElseThrow().getTotalElements());
+        Assertions.assertEquals(0L, searchIndex.search("tela de 50", PageRequest.of(0, 12)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    public void removeShouldDropProductFromResults() {
+        searchIndex.rebuild();
+
+        searchIndex.remove(notebook.getId());
+
+        Assertions.assertEquals(0L, searchIndex.search("notebook", PageRequest.of(0, 12)).orElseThrow().getTotalElements());
+    }
+}
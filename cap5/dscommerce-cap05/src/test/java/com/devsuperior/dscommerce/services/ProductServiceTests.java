@@ -1,10 +1,12 @@
 package com.devsuperior.dscommerce.services;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.InvalidCursorException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import jakarta.persistence.EntityNotFoundException;
@@ -16,13 +18,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +43,9 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex searchIndex;
+
     private long existingProductId, nonExistingProductId, dependentProductId;
     private String productName;
     private Product product;
@@ -60,7 +70,7 @@ public class ProductServiceTests {
         Mockito.when(productRepository.findById(nonExistingProductId)).thenReturn(Optional.empty());
 
         // findAll
-        Mockito.when(productRepository.searchByName(any(), any(Pageable.class))).thenReturn(page);
+        Mockito.when(productRepository.searchByNameOrDescription(any(), any(Pageable.class))).thenReturn(page);
 
         // insert
         Mockito.when(productRepository.save(any())).thenReturn(product);
@@ -110,6 +120,67 @@ public class ProductServiceTests {
         Assertions.assertEquals(result.iterator().next().getName(), productName);
     }
 
+    @Test
+    public void findAllShouldReturnIndexedPageWithoutQueryingDatabaseWhenIndexIsReady() {
+        Pageable pageable = PageRequest.of(0,12);
+        Page<ProductMinDTO> indexed = new PageImpl<>(List.of(new ProductMinDTO(product)), pageable, 1L);
+        Mockito.when(searchIndex.search(productName, pageable)).thenReturn(Optional.of(indexed));
+
+        Page<ProductMinDTO> result = productService.findAll(productName, pageable);
+
+        Assertions.assertSame(indexed, result);
+        Mockito.verify(productRepository, Mockito.never()).searchByNameOrDescription(any(), any(Pageable.class));
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnCursorThatContinuesAfterLastProduct() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("name"));
+        Window<Product> first = Window.from(List.of(product), i -> ScrollPosition.forward(Map.of("name", productName, "id", existingProductId)), true);
+        Mockito.when(productRepository.findBy(any(), any(), any())).thenReturn(first);
+
+        CursorPageDTO<ProductMinDTO> result = productService.findAllByCursor("", null, pageable, false);
+
+        Assertions.assertEquals(productName, result.getContent().get(0).getName());
+        Assertions.assertNotNull(result.getNext());
+        Assertions.assertNull(result.getTotalElements());
+
+        Mockito.when(productRepository.findBy(any(), any(), any())).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        result = productService.findAllByCursor("", result.getNext(), PageRequest.of(0, 1), false);
+
+        Assertions.assertTrue(result.isLast());
+        Mockito.verify(productRepository).findBy(
+                ScrollPosition.forward(Map.of("name", productName, "id", existingProductId)),
+                Sort.by("name", "id"),
+                Limit.of(1));
+        Mockito.verify(productRepository, Mockito.never()).countByNameContainingIgnoreCase(any());
+    }
+
+    @Test
+    public void findAllByCursorShouldCountOnlyWhenRequested() {
+        Window<Product> window = Window.from(List.of(product), ScrollPosition::offset, false);
+        Mockito.when(productRepository.findByNameContainingIgnoreCase(any(), any(), any(), any())).thenReturn(window);
+        Mockito.when(productRepository.countByNameContainingIgnoreCase(productName)).thenReturn(1L);
+
+        CursorPageDTO<ProductMinDTO> result = productService.findAllByCursor(productName, null, PageRequest.of(0, 12), true);
+
+        Assertions.assertEquals(1L, result.getTotalElements());
+        Assertions.assertNull(result.getNext());
+    }
+
+    @Test
+    public void findAllByCursorShouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+        Assertions.assertThrows(InvalidCursorException.class, () -> {
+            productService.findAllByCursor("", "not-a-cursor", PageRequest.of(0, 12), false);
+        });
+    }
+
+    @Test
+    public void findAllByCursorShouldThrowInvalidCursorExceptionWhenSortIsNotSupported() {
+        Assertions.assertThrows(InvalidCursorException.class, () -> {
+            productService.findAllByCursor("", null, PageRequest.of(0, 12, Sort.by("description")), false);
+        });
+    }
+
     @Test
     public void insertShouldReturnProductDTOWhenValidData() {
         ProductDTO result = productService.insert(productDTO);
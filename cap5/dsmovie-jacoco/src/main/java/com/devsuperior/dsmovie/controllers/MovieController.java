@@ -1,6 +1,7 @@
 package com.devsuperior.dsmovie.controllers;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -19,7 +20,10 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.devsuperior.dsmovie.dto.MovieDTO;
+import com.devsuperior.dsmovie.dto.ScoreBucketDTO;
+import com.devsuperior.dsmovie.entities.ScoreResolution;
 import com.devsuperior.dsmovie.services.MovieService;
+import com.devsuperior.dsmovie.services.ScoreHistoryService;
 
 import jakarta.validation.Valid;
 
@@ -30,6 +34,9 @@ public class MovieController {
 	@Autowired
 	private MovieService service;
 
+	@Autowired
+	private ScoreHistoryService scoreHistoryService;
+
 	@GetMapping
 	public Page<MovieDTO> findAll(
 			@RequestParam(value="title", defaultValue = "") String title, 
@@ -37,11 +44,29 @@ public class MovieController {
 		return service.findAll(title, pageable);
 	}
 
+	@GetMapping(value = "/top-rated")
+	public Page<MovieDTO> findTopRated(Pageable pageable) {
+		return service.findTopRated(pageable);
+	}
+
+	@GetMapping(value = "/trending")
+	public Page<MovieDTO> findTrending(Pageable pageable) {
+		return service.findTrending(pageable);
+	}
+
 	@GetMapping(value = "/{id}")
 	public MovieDTO findById(@PathVariable Long id) {
 		return service.findById(id);
 	}
 
+	@GetMapping(value = "/{id}/score-history")
+	public List<ScoreBucketDTO> findScoreHistory(
+			@PathVariable Long id,
+			@RequestParam(value = "resolution", defaultValue = "DAY") ScoreResolution resolution,
+			@RequestParam(value = "buckets", defaultValue = "30") Integer buckets) {
+		return scoreHistoryService.findHistory(id, resolution, buckets);
+	}
+
 	@PreAuthorize("hasRole('ROLE_ADMIN')")
 	@PostMapping
 	public ResponseEntity<MovieDTO> insert(@Valid @RequestBody MovieDTO dto) {
@@ -0,0 +1,43 @@
+package com.devsuperior.dsmovie.dto;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One bucket of the score history of a movie: the voters it added and the
+ * score and count of the movie when it ended.
+ */
+public class ScoreBucketDTO {
+
+	private static final DecimalFormat df = new DecimalFormat("#.##", new DecimalFormatSymbols(Locale.US));
+
+	private Instant start;
+	private Long votes;
+	private Double score;
+	private Long count;
+
+	public ScoreBucketDTO(Instant start, Long votes, Double score, Long count) {
+		this.start = start;
+		this.votes = votes;
+		this.score = (score != null) ? Double.valueOf(df.format(score)) : null;
+		this.count = count;
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public Long getVotes() {
+		return votes;
+	}
+
+	public Double getScore() {
+		return score;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,99 @@
+package com.devsuperior.dsmovie.entities;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * What the votes of one movie in one minute, hour or day added to its score:
+ * the change in the sum of its votes and in its number of voters.
+ */
+@Entity
+@Table(name = "tb_score_bucket", indexes = {
+		@Index(name = "ux_score_bucket_movie_start", columnList = "movie_id, resolution, bucket_start", unique = true),
+		@Index(name = "ix_score_bucket_start", columnList = "resolution, bucket_start")})
+public class ScoreBucketEntity {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne
+	@JoinColumn(name = "movie_id")
+	private MovieEntity movie;
+
+	@Enumerated(EnumType.STRING)
+	private ScoreResolution resolution;
+
+	@Column(name = "bucket_start", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant start;
+
+	@Column(name = "score_sum")
+	private Double sum;
+
+	@Column(name = "vote_count")
+	private Long count;
+
+	public ScoreBucketEntity() {
+	}
+
+	public ScoreBucketEntity(MovieEntity movie, ScoreResolution resolution, Instant start, Double sum, Long count) {
+		this.movie = movie;
+		this.resolution = resolution;
+		this.start = start;
+		this.sum = sum;
+		this.count = count;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public MovieEntity getMovie() {
+		return movie;
+	}
+
+	public ScoreResolution getResolution() {
+		return resolution;
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public Double getSum() {
+		return sum;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScoreBucketEntity other = (ScoreBucketEntity) obj;
+		return Objects.equals(id, other.id);
+	}
+}
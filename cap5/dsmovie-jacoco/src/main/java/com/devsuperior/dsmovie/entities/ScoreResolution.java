@@ -0,0 +1,27 @@
+package com.devsuperior.dsmovie.entities;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Length of the buckets of the score history.
+ */
+public enum ScoreResolution {
+
+	MINUTE(ChronoUnit.MINUTES),
+	HOUR(ChronoUnit.HOURS),
+	DAY(ChronoUnit.DAYS);
+
+	private final ChronoUnit unit;
+
+	ScoreResolution(ChronoUnit unit) {
+		this.unit = unit;
+	}
+
+	/**
+	 * @return start of the bucket holding {@code moment}, in UTC
+	 */
+	public Instant truncate(Instant moment) {
+		return moment.truncatedTo(unit);
+	}
+}
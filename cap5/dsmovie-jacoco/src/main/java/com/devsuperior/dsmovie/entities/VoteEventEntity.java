@@ -0,0 +1,97 @@
+package com.devsuperior.dsmovie.entities;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * One vote as cast, kept even when the user votes again; {@code tb_score}
+ * only holds the last vote of each user.
+ */
+@Entity
+@Table(name = "tb_vote_event", indexes = {
+		@Index(name = "ix_vote_event_moment", columnList = "moment")})
+public class VoteEventEntity {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne
+	@JoinColumn(name = "movie_id")
+	private MovieEntity movie;
+
+	@ManyToOne
+	@JoinColumn(name = "user_id")
+	private UserEntity user;
+
+	@Column(name = "score_value")
+	private Double value;
+
+	@Column(name = "previous_value")
+	private Double previousValue;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant moment;
+
+	public VoteEventEntity() {
+	}
+
+	public VoteEventEntity(MovieEntity movie, UserEntity user, Double value, Double previousValue, Instant moment) {
+		this.movie = movie;
+		this.user = user;
+		this.value = value;
+		this.previousValue = previousValue;
+		this.moment = moment;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public MovieEntity getMovie() {
+		return movie;
+	}
+
+	public UserEntity getUser() {
+		return user;
+	}
+
+	public Double getValue() {
+		return value;
+	}
+
+	public Double getPreviousValue() {
+		return previousValue;
+	}
+
+	public Instant getMoment() {
+		return moment;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		VoteEventEntity other = (VoteEventEntity) obj;
+		return Objects.equals(id, other.id);
+	}
+}
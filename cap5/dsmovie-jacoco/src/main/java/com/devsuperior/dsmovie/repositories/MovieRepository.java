@@ -1,8 +1,12 @@
 package com.devsuperior.dsmovie.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.dsmovie.entities.MovieEntity;
@@ -12,4 +16,21 @@ public interface MovieRepository extends JpaRepository<MovieEntity, Long> {
 	@Query("SELECT obj FROM MovieEntity obj "
 			+ "WHERE UPPER(obj.title) LIKE UPPER(CONCAT('%', :title, '%'))")
     Page<MovieEntity> searchByTitle(String title, Pageable pageable);
-}
+	
+	@Query(nativeQuery = true, value = """
+			SELECT id FROM tb_movie
+			WHERE score IS NULL OR count IS NULL
+			OR count <> (SELECT COUNT(*) FROM tb_score WHERE tb_score.movie_id = tb_movie.id)
+			OR ABS(score - COALESCE((SELECT AVG(tb_score.score_value) FROM tb_score WHERE tb_score.movie_id = tb_movie.id), 0)) > 0.000001
+		""")
+	List<Long> searchDriftedScores();
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(nativeQuery = true, value = """
+			UPDATE tb_movie
+			SET count = (SELECT COUNT(*) FROM tb_score WHERE tb_score.movie_id = tb_movie.id),
+				score = COALESCE((SELECT AVG(tb_score.score_value) FROM tb_score WHERE tb_score.movie_id = tb_movie.id), 0)
+			WHERE id IN (:movieIds)
+		""")
+	int reconcileScores(Collection<Long> movieIds);
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.devsuperior.dsmovie.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.devsuperior.dsmovie.entities.ScoreBucketEntity;
+import com.devsuperior.dsmovie.entities.ScoreResolution;
+
+public interface ScoreBucketRepository extends JpaRepository<ScoreBucketEntity, Long> {
+
+	@Query("SELECT obj FROM ScoreBucketEntity obj "
+			+ "WHERE obj.movie.id = :movieId AND obj.resolution = :resolution "
+			+ "ORDER BY obj.start DESC")
+	List<ScoreBucketEntity> searchLatest(Long movieId, ScoreResolution resolution, Limit limit);
+
+	@Query("SELECT obj.id FROM ScoreBucketEntity obj WHERE obj.resolution = :resolution AND obj.start < :before "
+			+ "ORDER BY obj.start")
+	List<Long> searchOlderIds(ScoreResolution resolution, Instant before, Limit limit);
+}
@@ -0,0 +1,16 @@
+package com.devsuperior.dsmovie.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.devsuperior.dsmovie.entities.VoteEventEntity;
+
+public interface VoteEventRepository extends JpaRepository<VoteEventEntity, Long> {
+
+	@Query("SELECT obj.id FROM VoteEventEntity obj WHERE obj.moment < :before ORDER BY obj.moment")
+	List<Long> searchOlderIds(Instant before, Limit limit);
+}
@@ -0,0 +1,295 @@
+package com.devsuperior.dsmovie.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Top rated and trending movies, kept in memory so their pages are served
+ * without sorting {@code tb_movie}.
+ * <p>
+ * Movies are ranked by weighted rating, the Bayesian average
+ * {@code (v * R + m * C) / (v + m)} where R is the movie score, v its number
+ * of votes, m is {@code movies.ranking.min-votes} and C is the mean of all
+ * votes. Movies with few votes are pulled towards C, so one 5.0 vote does not
+ * outrank thousands of votes at 4.8.
+ * <p>
+ * Only the {@code movies.ranking.size} best movies are held. Votes and movie
+ * changes update them as they commit; a movie that drops out of them is only
+ * replaced when the ranking is rebuilt, every
+ * {@code movies.ranking.rebuild-interval}, from one pass over the movies and
+ * their votes not yet flushed by {@link VoteBuffer}. Changes that commit
+ * during the pass are replayed over its result. C is recomputed by the
+ * rebuild too.
+ * <p>
+ * Trending movies are those with most votes in the current and previous
+ * {@code movies.ranking.trending-window}, held the same way: the
+ * {@code movies.ranking.size} most voted, refilled from the previous window
+ * when the windows rotate.
+ */
+@Component
+public class MovieRanking {
+
+	private record Rating(double score, long count) {
+	}
+
+	@Value("${movies.ranking.size}")
+	private Integer size;
+
+	@Value("${movies.ranking.min-votes}")
+	private Integer minVotes;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private VoteBuffer votes;
+
+	private volatile double mean;
+	private volatile Top top;
+
+	// changes offered while a rebuild runs, null when none runs; a null rating is a removal
+	private final Object offerLock = new Object();
+	private Map<Long, Rating> offeredDuringRebuild;
+
+	private final Object trendingLock = new Object();
+	private Map<Long, Long> currentVotes = new HashMap<>();
+	private Map<Long, Long> previousVotes = new HashMap<>();
+	private Top trending;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${movies.ranking.rebuild-interval}", fixedDelayString = "${movies.ranking.rebuild-interval}")
+	public synchronized void rebuild() {
+		synchronized (offerLock) {
+			offeredDuringRebuild = new HashMap<>();
+		}
+		try {
+			Top top = new Top(size);
+			double[] mean = new double[1];
+			// no flush may move votes from the buffer to tb_movie while they are read from both
+			votes.withoutFlush(() -> {
+				double[] totals = jdbcTemplate.queryForObject("SELECT SUM(score * count) AS total, SUM(count) AS votes FROM tb_movie",
+						(rs, rowNum) -> new double[] { rs.getDouble("total"), rs.getDouble("votes") });
+				mean[0] = (totals[1] > 0) ? totals[0] / totals[1] : 0.0;
+				jdbcTemplate.query("SELECT id, score, count FROM tb_movie", (RowCallbackHandler) rs -> {
+					long id = rs.getLong("id");
+					long stored = rs.getLong("count");
+					VoteBuffer.Delta pending = votes.pending(id);
+					long count = stored + pending.count();
+					double sum = rs.getDouble("score") * stored + pending.sum();
+					top.offer(id, weighted((count > 0) ? sum / count : 0.0, count, mean[0]));
+				});
+			});
+			synchronized (offerLock) {
+				offeredDuringRebuild.forEach((id, rating) -> apply(top, id, rating, mean[0]));
+				this.mean = mean[0];
+				this.top = top;
+			}
+		}
+		finally {
+			synchronized (offerLock) {
+				offeredDuringRebuild = null;
+			}
+		}
+	}
+
+	@Scheduled(fixedRateString = "${movies.ranking.trending-window}")
+	public void rotate() {
+		synchronized (trendingLock) {
+			previousVotes = currentVotes;
+			currentVotes = new HashMap<>();
+			trending = new Top(size);
+			previousVotes.forEach((id, count) -> trending.offer(id, count));
+		}
+	}
+
+	/**
+	 * Counts a vote on the movie and ranks it by its new score and count, when
+	 * the current transaction commits.
+	 */
+	public void voted(Long movieId, double score, long count) {
+		afterCommit(() -> {
+			synchronized (trendingLock) {
+				long recent = currentVotes.merge(movieId, 1L, Long::sum) + previousVotes.getOrDefault(movieId, 0L);
+				trending().offer(movieId, recent);
+			}
+			offer(movieId, new Rating(score, count));
+		});
+	}
+
+	/**
+	 * Ranks the movie by its new score and count, when the current transaction
+	 * commits.
+	 */
+	public void changed(Long movieId, double score, long count) {
+		afterCommit(() -> offer(movieId, new Rating(score, count)));
+	}
+
+	public void removed(Long movieId) {
+		afterCommit(() -> {
+			offer(movieId, null);
+			synchronized (trendingLock) {
+				currentVotes.remove(movieId);
+				previousVotes.remove(movieId);
+				trending().remove(movieId);
+			}
+		});
+	}
+
+	/**
+	 * @return ids of the top rated movies from position {@code offset}
+	 */
+	public List<Long> topRated(long offset, int limit) {
+		return loaded().page(offset, limit);
+	}
+
+	public long topRatedCount() {
+		return loaded().size();
+	}
+
+	/**
+	 * @return ids of the movies with most recent votes from position
+	 *         {@code offset}
+	 */
+	public List<Long> trending(long offset, int limit) {
+		synchronized (trendingLock) {
+			return trending().page(offset, limit);
+		}
+	}
+
+	public long trendingCount() {
+		synchronized (trendingLock) {
+			return trending().size();
+		}
+	}
+
+	private void offer(long movieId, Rating rating) {
+		loaded();
+		synchronized (offerLock) {
+			if (offeredDuringRebuild != null) {
+				offeredDuringRebuild.put(movieId, rating);
+			}
+			apply(top, movieId, rating, mean);
+		}
+	}
+
+	private void apply(Top top, long movieId, Rating rating, double mean) {
+		if (rating == null) {
+			top.remove(movieId);
+		}
+		else {
+			top.offer(movieId, weighted(rating.score(), rating.count(), mean));
+		}
+	}
+
+	private Top trending() {
+		if (trending == null) {
+			trending = new Top(size);
+		}
+		return trending;
+	}
+
+	private double weighted(double score, long count, double mean) {
+		return (count + minVotes > 0) ? (count * score + minVotes * mean) / (count + minVotes) : 0.0;
+	}
+
+	private Top loaded() {
+		Top result = top;
+		if (result == null) {
+			rebuild();
+			result = top;
+		}
+		return result;
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		}
+		else {
+			action.run();
+		}
+	}
+
+	/**
+	 * The {@code capacity} movies with best rating, in rating order.
+	 */
+	static class Top {
+
+		private record Entry(long id, double rating) {
+		}
+
+		private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::rating).reversed()
+				.thenComparingLong(Entry::id);
+
+		private final int capacity;
+		private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+		private final Map<Long, Entry> byId = new HashMap<>();
+
+		Top(int capacity) {
+			this.capacity = capacity;
+		}
+
+		/**
+		 * Adds the movie, or moves it to its new rating, if it is among the
+		 * best; the worst movie is dropped when over capacity.
+		 */
+		synchronized void offer(long id, double rating) {
+			Entry previous = byId.remove(id);
+			if (previous != null) {
+				entries.remove(previous);
+			}
+			Entry entry = new Entry(id, rating);
+			if (capacity > 0 && (entries.size() < capacity || ORDER.compare(entry, entries.last()) < 0)) {
+				entries.add(entry);
+				byId.put(id, entry);
+				if (entries.size() > capacity) {
+					byId.remove(entries.pollLast().id());
+				}
+			}
+		}
+
+		synchronized void remove(long id) {
+			Entry entry = byId.remove(id);
+			if (entry != null) {
+				entries.remove(entry);
+			}
+		}
+
+		synchronized List<Long> page(long offset, int limit) {
+			List<Long> ids = new ArrayList<>(limit);
+			Iterator<Entry> iterator = entries.iterator();
+			for (long i = 0; i < offset && iterator.hasNext(); i++) {
+				iterator.next();
+			}
+			while (ids.size() < limit && iterator.hasNext()) {
+				ids.add(iterator.next().id());
+			}
+			return ids;
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+	}
+}
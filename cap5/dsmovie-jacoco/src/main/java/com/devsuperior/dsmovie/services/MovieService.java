@@ -1,8 +1,14 @@
 package com.devsuperior.dsmovie.services;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,12 +27,27 @@ public class MovieService {
 	@Autowired
 	private MovieRepository repository;
 
+	@Autowired
+	private MovieRanking ranking;
+
 	@Transactional(readOnly = true)
 	public Page<MovieDTO> findAll(String title, Pageable pageable) {
 		Page<MovieEntity> result = repository.searchByTitle(title, pageable);
 		return result.map(x -> new MovieDTO(x));
 	}
 
+	@Transactional(readOnly = true)
+	public Page<MovieDTO> findTopRated(Pageable pageable) {
+		List<Long> ids = ranking.topRated(pageable.getOffset(), pageable.getPageSize());
+		return new PageImpl<>(findAllInOrder(ids), pageable, ranking.topRatedCount());
+	}
+
+	@Transactional(readOnly = true)
+	public Page<MovieDTO> findTrending(Pageable pageable) {
+		List<Long> ids = ranking.trending(pageable.getOffset(), pageable.getPageSize());
+		return new PageImpl<>(findAllInOrder(ids), pageable, ranking.trendingCount());
+	}
+
 	@Transactional(readOnly = true)
 	public MovieDTO findById(Long id) {
 		MovieEntity result = repository.findById(id)
@@ -39,6 +60,7 @@ public class MovieService {
 		MovieEntity entity = new MovieEntity();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		rank(entity);
 		return new MovieDTO(entity);
 	}
 
@@ -48,6 +70,7 @@ public class MovieService {
 			MovieEntity entity = repository.getReferenceById(id);
 			copyDtoToEntity(dto, entity);
 			entity = repository.save(entity);
+			rank(entity);
 			return new MovieDTO(entity);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Recurso não encontrado");
@@ -59,11 +82,27 @@ public class MovieService {
 			throw new ResourceNotFoundException("Recurso não encontrado");
 		try {
 			repository.deleteById(id);
+			ranking.removed(id);
 		} catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Falha de integridade referencial");
 		}
 	}
 
+	/**
+	 * Loads the movies by id in one query, in the order of {@code ids}; ids of
+	 * deleted movies are skipped.
+	 */
+	private List<MovieDTO> findAllInOrder(List<Long> ids) {
+		Map<Long, MovieEntity> movies = repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(MovieEntity::getId, Function.identity()));
+		return ids.stream().filter(movies::containsKey).map(id -> new MovieDTO(movies.get(id))).toList();
+	}
+
+	private void rank(MovieEntity entity) {
+		ranking.changed(entity.getId(), (entity.getScore() != null) ? entity.getScore() : 0.0,
+				(entity.getCount() != null) ? entity.getCount() : 0);
+	}
+
 	private void copyDtoToEntity(MovieDTO dto, MovieEntity entity) {
 		entity.setTitle(dto.getTitle());
 		entity.setScore(dto.getScore());
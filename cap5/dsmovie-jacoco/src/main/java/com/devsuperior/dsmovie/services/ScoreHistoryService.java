@@ -0,0 +1,133 @@
+package com.devsuperior.dsmovie.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dsmovie.dto.ScoreBucketDTO;
+import com.devsuperior.dsmovie.entities.MovieEntity;
+import com.devsuperior.dsmovie.entities.ScoreBucketEntity;
+import com.devsuperior.dsmovie.entities.ScoreResolution;
+import com.devsuperior.dsmovie.repositories.MovieRepository;
+import com.devsuperior.dsmovie.repositories.ScoreBucketRepository;
+import com.devsuperior.dsmovie.repositories.VoteEventRepository;
+import com.devsuperior.dsmovie.services.exceptions.ResourceNotFoundException;
+
+/**
+ * Score history of the movies, read from the minute, hour and day buckets
+ * that {@link VoteBuffer} keeps up to date with each flush.
+ * <p>
+ * Every {@code scores.history.compaction-interval} the vote events and the
+ * buckets older than their retention are deleted, in batches of
+ * {@code scores.history.compaction-batch-size} rows with one transaction per
+ * batch, so a large backlog never holds long locks. The buckets of each
+ * resolution are written independently, so deleting the minute buckets of a
+ * day leaves its hour and day buckets whole.
+ */
+@Service
+public class ScoreHistoryService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ScoreHistoryService.class);
+
+	private static final int MAX_BUCKETS = 1000;
+
+	@Value("${scores.history.event-retention}")
+	private Duration eventRetention;
+
+	@Value("${scores.history.minute-retention}")
+	private Duration minuteRetention;
+
+	@Value("${scores.history.hour-retention}")
+	private Duration hourRetention;
+
+	@Value("${scores.history.day-retention}")
+	private Duration dayRetention;
+
+	@Value("${scores.history.compaction-batch-size}")
+	private Integer batchSize;
+
+	@Autowired
+	private MovieRepository movieRepository;
+
+	@Autowired
+	private ScoreBucketRepository bucketRepository;
+
+	@Autowired
+	private VoteEventRepository voteEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Reads the latest {@code buckets} buckets of the movie, oldest first. The
+	 * score at the end of each bucket is worked back from the current score of
+	 * the movie, so only those buckets are read.
+	 */
+	@Transactional(readOnly = true)
+	public List<ScoreBucketDTO> findHistory(Long movieId, ScoreResolution resolution, int buckets) {
+		MovieEntity movie = movieRepository.findById(movieId)
+				.orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado"));
+		List<ScoreBucketEntity> latest = bucketRepository.searchLatest(movieId, resolution,
+				Limit.of(Math.max(1, Math.min(buckets, MAX_BUCKETS))));
+
+		long count = (movie.getCount() != null) ? movie.getCount() : 0;
+		double sum = ((movie.getScore() != null) ? movie.getScore() : 0.0) * count;
+		List<ScoreBucketDTO> result = new ArrayList<>(latest.size());
+		for (ScoreBucketEntity bucket : latest) {
+			result.add(new ScoreBucketDTO(bucket.getStart(), bucket.getCount(), (count > 0) ? sum / count : 0.0, count));
+			sum -= bucket.getSum();
+			count -= bucket.getCount();
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	@Scheduled(initialDelayString = "${scores.history.compaction-interval}", fixedDelayString = "${scores.history.compaction-interval}")
+	public void compact() {
+		Instant now = Instant.now();
+		int events = deleteInBatches(voteEventRepository,
+				limit -> voteEventRepository.searchOlderIds(now.minus(eventRetention), limit));
+		int buckets = deleteInBatches(bucketRepository,
+				limit -> bucketRepository.searchOlderIds(ScoreResolution.MINUTE, now.minus(minuteRetention), limit))
+				+ deleteInBatches(bucketRepository,
+						limit -> bucketRepository.searchOlderIds(ScoreResolution.HOUR, now.minus(hourRetention), limit))
+				+ deleteInBatches(bucketRepository,
+						limit -> bucketRepository.searchOlderIds(ScoreResolution.DAY, now.minus(dayRetention), limit));
+		if (events > 0 || buckets > 0) {
+			logger.info("Score history compacted: {} vote events and {} buckets deleted", events, buckets);
+		}
+	}
+
+	/**
+	 * @return number of rows deleted
+	 */
+	private int deleteInBatches(JpaRepository<?, Long> repository, Function<Limit, List<Long>> search) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		int total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> {
+				List<Long> ids = search.apply(Limit.of(batchSize));
+				repository.deleteAllByIdInBatch(ids);
+				return ids.size();
+			});
+			total += deleted;
+		} while (deleted == batchSize);
+		return total;
+	}
+}
@@ -1,6 +1,14 @@
 package com.devsuperior.dsmovie.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -8,14 +16,19 @@ import com.devsuperior.dsmovie.dto.MovieDTO;
 import com.devsuperior.dsmovie.dto.ScoreDTO;
 import com.devsuperior.dsmovie.entities.MovieEntity;
 import com.devsuperior.dsmovie.entities.ScoreEntity;
+import com.devsuperior.dsmovie.entities.ScoreEntityPK;
 import com.devsuperior.dsmovie.entities.UserEntity;
+import com.devsuperior.dsmovie.entities.VoteEventEntity;
 import com.devsuperior.dsmovie.repositories.MovieRepository;
 import com.devsuperior.dsmovie.repositories.ScoreRepository;
+import com.devsuperior.dsmovie.repositories.VoteEventRepository;
 import com.devsuperior.dsmovie.services.exceptions.ResourceNotFoundException;
 
 @Service
 public class ScoreService {
 
+	private static final Logger logger = LoggerFactory.getLogger(ScoreService.class);
+
 	@Autowired
 	private UserService userService;
 	
@@ -25,6 +38,23 @@ public class ScoreService {
 	@Autowired
 	private ScoreRepository scoreRepository;
 	
+	@Autowired
+	private VoteEventRepository voteEventRepository;
+	
+	@Autowired
+	private VoteBuffer votes;
+	
+	@Autowired
+	private MovieRanking ranking;
+	
+	/**
+	 * Saves the vote of the authenticated user and hands the difference it
+	 * makes to the movie score to {@link VoteBuffer}, without reading the
+	 * other votes or locking the movie: a first vote adds one to the count, a
+	 * new vote of the same user only changes the sum. The vote is also
+	 * appended to the vote events. The movie returned includes the votes not
+	 * yet written to it.
+	 */
 	@Transactional
 	public MovieDTO saveScore(ScoreDTO dto) {
 		
@@ -33,25 +63,58 @@ public class ScoreService {
 		MovieEntity movie = movieRepository.findById(dto.getMovieId())
 				.orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado"));		
 		
-		ScoreEntity score = new ScoreEntity();
-		score.setMovie(movie);
-		score.setUser(user);
-		score.setValue(dto.getScore());
+		ScoreEntityPK id = new ScoreEntityPK();
+		id.setMovie(movie);
+		id.setUser(user);
 		
-		score = scoreRepository.saveAndFlush(score);
+		Optional<ScoreEntity> previous = scoreRepository.findById(id);
+		Double previousValue = previous.map(ScoreEntity::getValue).orElse(null);
+		double delta = dto.getScore() - ((previousValue != null) ? previousValue : 0.0);
+		int added = previous.isPresent() ? 0 : 1;
+		Instant moment = Instant.now();
 		
-		double sum = 0.0;
-		for (ScoreEntity s : movie.getScores()) {
-			sum = sum + s.getValue();
-		}
-			
-		double avg = sum / movie.getScores().size();
+		ScoreEntity score = previous.orElseGet(() -> {
+			ScoreEntity entity = new ScoreEntity();
+			entity.setId(id);
+			return entity;
+		});
+		score.setValue(dto.getScore());
+		
+		scoreRepository.saveAndFlush(score);
+		voteEventRepository.save(new VoteEventEntity(movie, user, dto.getScore(), previousValue, moment));
 		
-		movie.setScore(avg);
-		movie.setCount(movie.getScores().size());
+		VoteBuffer.Delta vote = new VoteBuffer.Delta(delta, added);
+		votes.add(movie.getId(), moment, vote);
 		
-		movie = movieRepository.save(movie);
+		VoteBuffer.Delta pending = votes.pending(movie.getId()).plus(vote);
+		int stored = (movie.getCount() != null) ? movie.getCount() : 0;
+		double sum = ((movie.getScore() != null) ? movie.getScore() : 0.0) * stored + pending.sum();
+		long count = stored + pending.count();
+		double average = (count > 0) ? sum / count : 0.0;
+		ranking.voted(movie.getId(), average, count);
 		
-		return new MovieDTO(movie);
+		return new MovieDTO(movie.getId(), movie.getTitle(), average, (int) count, movie.getImage());
+	}
+	
+	/**
+	 * Recomputes the score and count of the movies that drifted from their
+	 * votes, every {@code scores.reconcile-interval}. Buffered votes are
+	 * written first, each step in a transaction of its own, and the movies
+	 * with votes still buffered or not yet committed are left to the next
+	 * run, so those votes are not counted twice.
+	 */
+	@Scheduled(initialDelayString = "${scores.reconcile-interval}", fixedDelayString = "${scores.reconcile-interval}")
+	public void reconcileScores() {
+		List<Long> movies = votes.reconcile(busy -> {
+			List<Long> movieIds = new ArrayList<>(movieRepository.searchDriftedScores());
+			movieIds.removeAll(busy);
+			if (!movieIds.isEmpty()) {
+				movieRepository.reconcileScores(movieIds);
+			}
+			return movieIds;
+		});
+		if (!movies.isEmpty()) {
+			logger.info("Score corrected for {} movies", movies.size());
+		}
 	}
 }
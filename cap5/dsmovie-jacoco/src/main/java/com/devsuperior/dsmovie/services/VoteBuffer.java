@@ -0,0 +1,250 @@
+package com.devsuperior.dsmovie.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dsmovie.entities.ScoreResolution;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Score changes of the movies not yet written to {@code tb_movie}.
+ * <p>
+ * Votes of the same movie are summed in memory and written every
+ * {@code votes.flush-interval} with one JDBC batch holding one UPDATE per
+ * movie, so a burst of votes on one movie costs one row update per flush
+ * instead of one per vote. Each movie is summed under its own map bin lock,
+ * so votes on different movies do not wait for each other.
+ * <p>
+ * The same flush adds the votes to the minute, hour and day buckets of the
+ * score history in {@code tb_score_bucket}: one batch of UPDATEs per
+ * resolution, then one batch of INSERTs for the buckets not found.
+ * <p>
+ * A vote is tracked from the moment it is added, before its transaction
+ * commits, until it is written, so {@link #reconcile(Function)} can leave
+ * alone the movies whose votes are in {@code tb_score} but not yet in
+ * {@code tb_movie}.
+ */
+@Component
+public class VoteBuffer {
+
+	private static final Logger logger = LoggerFactory.getLogger(VoteBuffer.class);
+
+	private static final String UPDATE_SQL = "UPDATE tb_movie "
+			+ "SET score = (COALESCE(score, 0) * COALESCE(count, 0) + ?) / NULLIF(COALESCE(count, 0) + ?, 0), "
+			+ "count = COALESCE(count, 0) + ? "
+			+ "WHERE id = ?";
+
+	private static final String UPDATE_BUCKET_SQL = "UPDATE tb_score_bucket "
+			+ "SET score_sum = score_sum + ?, vote_count = vote_count + ? "
+			+ "WHERE movie_id = ? AND resolution = ? AND bucket_start = ?";
+
+	private static final String INSERT_BUCKET_SQL = "INSERT INTO tb_score_bucket "
+			+ "(score_sum, vote_count, movie_id, resolution, bucket_start) VALUES (?, ?, ?, ?, ?)";
+
+	/**
+	 * Sum of vote values and number of votes to add to a movie.
+	 */
+	public record Delta(double sum, long count) {
+
+		public static final Delta ZERO = new Delta(0.0, 0L);
+
+		public Delta plus(Delta other) {
+			return new Delta(sum + other.sum, count + other.count);
+		}
+	}
+
+	private record Bucket(Long movieId, Instant start) {
+	}
+
+	private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+	private final Map<Bucket, Delta> minutes = new ConcurrentHashMap<>();
+	private final Map<Long, Integer> uncommitted = new ConcurrentHashMap<>();
+	private final Map<Long, Long> lastVote = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Adds a vote cast at {@code moment} to the buffer when the current
+	 * transaction commits, or at once outside a transaction.
+	 */
+	public void add(Long movieId, Instant moment, Delta delta) {
+		Bucket minute = new Bucket(movieId, ScoreResolution.MINUTE.truncate(moment));
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			uncommitted.merge(movieId, 1, Integer::sum);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						merge(movieId, minute, delta);
+					}
+					uncommitted.computeIfPresent(movieId, (id, votes) -> (votes > 1) ? votes - 1 : null);
+				}
+			});
+		}
+		else {
+			merge(movieId, minute, delta);
+		}
+		lastVote.merge(movieId, sequence.incrementAndGet(), Math::max);
+	}
+
+	/**
+	 * @return the votes of the movie not yet written, {@link Delta#ZERO} if none
+	 */
+	public Delta pending(Long movieId) {
+		return pending.getOrDefault(movieId, Delta.ZERO);
+	}
+
+	/**
+	 * Runs {@code action} while no flush can run, so votes it reads from both
+	 * {@code tb_movie} and {@link #pending(Long)} are neither missed nor read
+	 * twice.
+	 */
+	public synchronized void withoutFlush(Runnable action) {
+		action.run();
+	}
+
+	/**
+	 * Writes the buffered deltas. A movie that gets votes while its delta is
+	 * written starts a new delta, written by the next flush. The batch runs
+	 * in a transaction of its own, even when called inside another one; if it
+	 * fails, its deltas are put back.
+	 */
+	@Scheduled(fixedDelayString = "${votes.flush-interval}")
+	@PreDestroy
+	public synchronized void flush() {
+		List<Long> movieIds = new ArrayList<>();
+		List<Delta> deltas = new ArrayList<>();
+		for (Long movieId : pending.keySet()) {
+			Delta delta = pending.remove(movieId);
+			if (delta != null) {
+				movieIds.add(movieId);
+				deltas.add(delta);
+			}
+		}
+		Map<Bucket, Delta> buckets = new HashMap<>();
+		for (Bucket bucket : minutes.keySet()) {
+			Delta delta = minutes.remove(bucket);
+			if (delta != null) {
+				buckets.put(bucket, delta);
+			}
+		}
+		if (movieIds.isEmpty() && buckets.isEmpty()) {
+			return;
+		}
+		List<Object[]> args = new ArrayList<>(movieIds.size());
+		for (int i = 0; i < movieIds.size(); i++) {
+			Delta delta = deltas.get(i);
+			args.add(new Object[] { delta.sum(), delta.count(), delta.count(), movieIds.get(i) });
+		}
+		try {
+			newTransaction().executeWithoutResult(status -> {
+				if (!args.isEmpty()) {
+					jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+				}
+				for (ScoreResolution resolution : ScoreResolution.values()) {
+					writeBuckets(resolution, buckets);
+				}
+			});
+		}
+		catch (DataAccessException e) {
+			logger.warn("Could not write the scores of {} movies, will retry", movieIds.size(), e);
+			for (int i = 0; i < movieIds.size(); i++) {
+				pending.merge(movieIds.get(i), deltas.get(i), Delta::plus);
+			}
+			buckets.forEach((bucket, delta) -> minutes.merge(bucket, delta, Delta::plus));
+		}
+	}
+
+	/**
+	 * Flushes, then runs {@code reconcile} in a new transaction while no other
+	 * flush can run. {@code reconcile} gets the movies with votes not yet
+	 * written to {@code tb_movie}, buffered or saved by a transaction not yet
+	 * committed, and must leave them alone: those votes are in
+	 * {@code tb_score} or about to be, and the next flush adds them again. It
+	 * returns the movies it rewrote; if one of them got a vote while it ran,
+	 * the transaction rolls back and they are left to the next run.
+	 *
+	 * @return the movies rewritten
+	 */
+	public synchronized List<Long> reconcile(Function<Set<Long>, List<Long>> reconcile) {
+		flush();
+		long since = sequence.get();
+		Set<Long> busy = new HashSet<>(uncommitted.keySet());
+		busy.addAll(pending.keySet());
+		List<Long> rewritten = newTransaction().execute(status -> {
+			List<Long> movieIds = reconcile.apply(busy);
+			if (movieIds.stream().anyMatch(movieId -> lastVote.getOrDefault(movieId, 0L) > since)) {
+				status.setRollbackOnly();
+				return List.of();
+			}
+			return movieIds;
+		});
+		return (rewritten != null) ? rewritten : List.of();
+	}
+
+	private TransactionTemplate newTransaction() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		return template;
+	}
+
+	/**
+	 * Adds the minute buckets, summed into buckets of {@code resolution}, to
+	 * the stored ones.
+	 */
+	private void writeBuckets(ScoreResolution resolution, Map<Bucket, Delta> minuteBuckets) {
+		Map<Bucket, Delta> buckets = new HashMap<>();
+		minuteBuckets.forEach((bucket, delta) -> buckets.merge(
+				new Bucket(bucket.movieId(), resolution.truncate(bucket.start())), delta, Delta::plus));
+		if (buckets.isEmpty()) {
+			return;
+		}
+		List<Object[]> args = new ArrayList<>(buckets.size());
+		buckets.forEach((bucket, delta) -> args.add(new Object[] { delta.sum(), delta.count(), bucket.movieId(),
+				resolution.name(), LocalDateTime.ofInstant(bucket.start(), ZoneOffset.UTC) }));
+		int[] counts = jdbcTemplate.batchUpdate(UPDATE_BUCKET_SQL, args);
+		List<Object[]> missing = new ArrayList<>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0) {
+				missing.add(args.get(i));
+			}
+		}
+		if (!missing.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, missing);
+		}
+	}
+
+	private void merge(Long movieId, Bucket minute, Delta delta) {
+		pending.merge(movieId, delta, Delta::plus);
+		minutes.merge(minute, delta, Delta::plus);
+	}
+}
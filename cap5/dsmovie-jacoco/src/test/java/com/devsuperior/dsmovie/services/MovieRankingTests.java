@@ -0,0 +1,211 @@
+package com.devsuperior.dsmovie.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(SpringExtension.class)
+public class MovieRankingTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(MovieRankingTests.class);
+
+	@InjectMocks
+	private MovieRanking ranking;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private VoteBuffer votes;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(ranking, "size", 3);
+		ReflectionTestUtils.setField(ranking, "minVotes", 10);
+
+		// mean of all votes 3.0, no movies stored yet
+		Mockito.when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenReturn(new double[] { 300.0, 100.0 });
+		Mockito.doNothing().when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+		Mockito.when(votes.pending(any())).thenReturn(VoteBuffer.Delta.ZERO);
+		Mockito.doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(0).run();
+			return null;
+		}).when(votes).withoutFlush(any());
+	}
+
+	@Test
+	public void topRatedShouldRankManyVotesAboveFewVotesWithHigherScore() {
+
+		ranking.changed(1L, 5.0, 1);
+		ranking.changed(2L, 4.8, 10000);
+		ranking.changed(3L, 3.0, 50);
+
+		Assertions.assertEquals(List.of(2L, 1L, 3L), ranking.topRated(0, 10));
+	}
+
+	@Test
+	public void topRatedShouldKeepOnlyBestMoviesAndMoveRerankedMovies() {
+
+		ranking.changed(1L, 4.0, 100);
+		ranking.changed(2L, 3.5, 100);
+		ranking.changed(3L, 3.2, 100);
+		ranking.changed(4L, 1.0, 100);
+		ranking.changed(3L, 4.5, 100);
+		ranking.removed(1L);
+
+		Assertions.assertEquals(List.of(3L, 2L), ranking.topRated(0, 10));
+		Assertions.assertEquals(List.of(2L), ranking.topRated(1, 1));
+		Assertions.assertEquals(2L, ranking.topRatedCount());
+	}
+
+	@Test
+	public void trendingShouldRankByVotesOfCurrentAndPreviousWindow() {
+
+		ranking.voted(1L, 4.0, 1);
+		ranking.voted(1L, 4.0, 2);
+		ranking.voted(2L, 4.0, 1);
+		ranking.rotate();
+		ranking.voted(2L, 4.0, 2);
+		ranking.voted(2L, 4.0, 3);
+		ranking.voted(3L, 4.0, 1);
+
+		Assertions.assertEquals(List.of(2L, 1L, 3L), ranking.trending(0, 10));
+		Assertions.assertEquals(3L, ranking.trendingCount());
+
+		ranking.rotate();
+		ranking.rotate();
+
+		Assertions.assertEquals(List.of(), ranking.trending(0, 10));
+	}
+
+	@Test
+	public void rebuildShouldAddVotesNotYetFlushed() throws Exception {
+
+		Mockito.when(votes.pending(1L)).thenReturn(new VoteBuffer.Delta(500.0, 100));
+		scan(row(1L, 3.0, 100), row(2L, 3.5, 100));
+
+		ranking.rebuild();
+
+		Assertions.assertEquals(List.of(1L, 2L), ranking.topRated(0, 10));
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesCommittedDuringTheScan() {
+
+		ranking.rebuild();
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(row(1L, 4.0, 100));
+			ranking.changed(2L, 4.5, 100);
+			ranking.changed(1L, 1.0, 100);
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		ranking.rebuild();
+
+		Assertions.assertEquals(List.of(2L, 1L), ranking.topRated(0, 10));
+	}
+
+	@Test
+	public void trendingShouldKeepOnlyMostVotedMovies() {
+
+		ranking.voted(1L, 4.0, 1);
+		ranking.voted(2L, 4.0, 1);
+		ranking.voted(2L, 4.0, 2);
+		ranking.voted(3L, 4.0, 1);
+		ranking.rotate();
+		ranking.voted(4L, 4.0, 1);
+		ranking.voted(4L, 4.0, 2);
+		ranking.voted(4L, 4.0, 3);
+
+		Assertions.assertEquals(List.of(4L, 2L, 1L), ranking.trending(0, 10));
+		Assertions.assertEquals(3L, ranking.trendingCount());
+	}
+
+	@Test
+	public void topShouldMatchFullSortAfterRatingChanges() {
+		rankRandomMovies(10_000, 100);
+	}
+
+	/**
+	 * A rebuild pass over 1M movies, then 1M rating changes, into a top of
+	 * 1000. Times are only logged.
+	 */
+	@Tag("benchmark")
+	@Test
+	public void topShouldRankOneMillionMoviesAndVotes() {
+		rankRandomMovies(1_000_000, 1000);
+	}
+
+	private static void rankRandomMovies(int movies, int capacity) {
+		Random random = new Random(42);
+		double[] ratings = new double[movies];
+
+		MovieRanking.Top top = new MovieRanking.Top(capacity);
+		long start = System.nanoTime();
+		for (int id = 0; id < movies; id++) {
+			ratings[id] = random.nextDouble() * 5.0;
+			top.offer(id, ratings[id]);
+		}
+		long rebuilt = System.nanoTime();
+		for (int i = 0; i < movies; i++) {
+			int id = random.nextInt(movies);
+			ratings[id] = Math.min(5.0, ratings[id] + random.nextDouble() * 0.1);
+			top.offer(id, ratings[id]);
+		}
+		long changed = System.nanoTime();
+		List<Long> lastPage = top.page(capacity - 20, 20);
+		long paged = System.nanoTime();
+		logger.info("Top {} of {} movies: rebuild {} ms, {} changes {} ms, last page {} us", capacity, movies,
+				(rebuilt - start) / 1_000_000, movies, (changed - rebuilt) / 1_000_000, (paged - changed) / 1000);
+
+		// movies whose rating only rose never leave the top, so it matches a full sort
+		List<Long> expected = IntStream.range(0, movies).boxed()
+				.sorted(Comparator.<Integer>comparingDouble(id -> ratings[id]).reversed().thenComparingInt(id -> id))
+				.limit(capacity)
+				.map(Long::valueOf)
+				.toList();
+		Assertions.assertEquals(expected, top.page(0, capacity));
+		Assertions.assertEquals(expected.subList(capacity - 20, capacity), lastPage);
+	}
+
+	private void scan(ResultSet... rows) {
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (ResultSet row : rows) {
+				handler.processRow(row);
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+	}
+
+	private ResultSet row(long id, double score, long count) throws SQLException {
+		ResultSet row = Mockito.mock(ResultSet.class);
+		Mockito.when(row.getLong("id")).thenReturn(id);
+		Mockito.when(row.getDouble("score")).thenReturn(score);
+		Mockito.when(row.getLong("count")).thenReturn(count);
+		return row;
+	}
+}
@@ -35,6 +35,9 @@ public class MovieServiceTests {
 	@Mock
 	private MovieRepository movieRepository;
 
+	@Mock
+	private MovieRanking ranking;
+
 	private MovieEntity movieEntity;
 	private MovieDTO movieDTO;
 	private Long existingId, nonExistingId, dependentId;
@@ -84,6 +87,22 @@ public class MovieServiceTests {
 		Assertions.assertEquals(result.iterator().next().getTitle(), movieEntity.getTitle());
 	}
 	
+	@Test
+	public void findTopRatedShouldReturnMoviesInRankingOrderSkippingDeleted() {
+		Pageable pageable = PageRequest.of(0,12);
+		MovieEntity otherMovie = new MovieEntity(2L, "Other Movie", 4.8, 10000, movieEntity.getImage());
+		List<Long> ids = List.of(2L, 99L, 1L);
+		Mockito.when(ranking.topRated(0, 12)).thenReturn(ids);
+		Mockito.when(ranking.topRatedCount()).thenReturn(3L);
+		Mockito.when(movieRepository.findAllById(ids)).thenReturn(List.of(movieEntity, otherMovie));
+
+		Page<MovieDTO> result = movieService.findTopRated(pageable);
+
+		Assertions.assertEquals(List.of(2L, 1L), result.map(MovieDTO::getId).getContent());
+		// last page shorter than the ranking count: PageImpl trims the total to what was found
+		Assertions.assertEquals(2L, result.getTotalElements());
+	}
+	
 	@Test
 	public void findByIdShouldReturnMovieDTOWhenIdExists() {
 
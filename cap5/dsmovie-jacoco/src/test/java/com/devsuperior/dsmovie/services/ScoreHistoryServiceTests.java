@@ -0,0 +1,119 @@
+package com.devsuperior.dsmovie.services;
+
+import com.devsuperior.dsmovie.dto.ScoreBucketDTO;
+import com.devsuperior.dsmovie.entities.MovieEntity;
+import com.devsuperior.dsmovie.entities.ScoreBucketEntity;
+import com.devsuperior.dsmovie.entities.ScoreResolution;
+import com.devsuperior.dsmovie.repositories.MovieRepository;
+import com.devsuperior.dsmovie.repositories.ScoreBucketRepository;
+import com.devsuperior.dsmovie.repositories.VoteEventRepository;
+import com.devsuperior.dsmovie.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dsmovie.tests.MovieFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(SpringExtension.class)
+public class ScoreHistoryServiceTests {
+
+	@InjectMocks
+	private ScoreHistoryService scoreHistoryService;
+
+	@Mock
+	private MovieRepository movieRepository;
+
+	@Mock
+	private ScoreBucketRepository bucketRepository;
+
+	@Mock
+	private VoteEventRepository voteEventRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private Long existingMovieId, nonExistingMovieId;
+	private MovieEntity movieEntity;
+	private Instant start;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingMovieId = 1L;
+		nonExistingMovieId = 2L;
+		start = Instant.parse("2024-05-10T00:00:00Z");
+
+		// 4 votes, sum 16.0
+		movieEntity = MovieFactory.createMovieEntity();
+		movieEntity.setScore(4.0);
+		movieEntity.setCount(4);
+
+		// newest first: a re-vote adding 1.0, then two votes of 5.0 and 4.0
+		List<ScoreBucketEntity> buckets = List.of(
+				new ScoreBucketEntity(movieEntity, ScoreResolution.DAY, start.plus(Duration.ofDays(2)), 1.0, 0L),
+				new ScoreBucketEntity(movieEntity, ScoreResolution.DAY, start.plus(Duration.ofDays(1)), 9.0, 2L));
+
+		Mockito.when(movieRepository.findById(existingMovieId)).thenReturn(Optional.of(movieEntity));
+		Mockito.when(movieRepository.findById(nonExistingMovieId)).thenReturn(Optional.empty());
+		Mockito.when(bucketRepository.searchLatest(eq(existingMovieId), eq(ScoreResolution.DAY), any(Limit.class))).thenReturn(buckets);
+
+		ReflectionTestUtils.setField(scoreHistoryService, "eventRetention", Duration.ofDays(30));
+		ReflectionTestUtils.setField(scoreHistoryService, "minuteRetention", Duration.ofDays(2));
+		ReflectionTestUtils.setField(scoreHistoryService, "hourRetention", Duration.ofDays(90));
+		ReflectionTestUtils.setField(scoreHistoryService, "dayRetention", Duration.ofDays(3650));
+		ReflectionTestUtils.setField(scoreHistoryService, "batchSize", 2);
+	}
+
+	@Test
+	public void findHistoryShouldReturnScoreAtEndOfEachBucketOldestFirst() {
+
+		List<ScoreBucketDTO> result = scoreHistoryService.findHistory(existingMovieId, ScoreResolution.DAY, 30);
+
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals(start.plus(Duration.ofDays(1)), result.get(0).getStart());
+		Assertions.assertEquals(2L, result.get(0).getVotes());
+		Assertions.assertEquals(3.75, result.get(0).getScore());
+		Assertions.assertEquals(4L, result.get(0).getCount());
+		Assertions.assertEquals(4.0, result.get(1).getScore());
+		Assertions.assertEquals(4L, result.get(1).getCount());
+	}
+
+	@Test
+	public void findHistoryShouldThrowResourceNotFoundExceptionWhenNonExistingMovieId() {
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			scoreHistoryService.findHistory(nonExistingMovieId, ScoreResolution.DAY, 30);
+		});
+	}
+
+	@Test
+	public void compactShouldDeleteEventsAndBucketsOlderThanTheirRetentionInBatches() {
+
+		Mockito.when(voteEventRepository.searchOlderIds(any(), any(Limit.class))).thenReturn(List.of(1L, 2L), List.of(3L));
+		Mockito.when(bucketRepository.searchOlderIds(eq(ScoreResolution.MINUTE), any(), any(Limit.class))).thenReturn(List.of(4L));
+
+		scoreHistoryService.compact();
+
+		Mockito.verify(voteEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+		Mockito.verify(voteEventRepository).deleteAllByIdInBatch(List.of(3L));
+		Mockito.verify(bucketRepository).deleteAllByIdInBatch(List.of(4L));
+		Mockito.verify(bucketRepository).searchOlderIds(eq(ScoreResolution.HOUR), any(), eq(Limit.of(2)));
+		Mockito.verify(bucketRepository).searchOlderIds(eq(ScoreResolution.DAY), any(), eq(Limit.of(2)));
+		// one transaction per batch: two for the events, one per bucket resolution
+		Mockito.verify(transactionManager, Mockito.times(5)).commit(any());
+	}
+}
@@ -0,0 +1,127 @@
+package com.devsuperior.dsmovie.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dsmovie.dto.ScoreDTO;
+import com.devsuperior.dsmovie.entities.UserEntity;
+import com.devsuperior.dsmovie.repositories.MovieRepository;
+import com.devsuperior.dsmovie.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Votes saved concurrently on one movie against H2, each in its own
+ * transaction, while other threads flush and reconcile.
+ */
+@DataJpaTest
+@Import({ ScoreService.class, VoteBuffer.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ScoreServiceDatabaseTests {
+
+	@Autowired
+	private ScoreService service;
+
+	@Autowired
+	private VoteBuffer votes;
+
+	@Autowired
+	private MovieRepository movieRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockitoBean
+	private UserService userService;
+
+	@MockitoBean
+	private MovieRanking ranking;
+
+	private final ThreadLocal<UserEntity> voter = new ThreadLocal<>();
+	private Long movieId;
+	private List<UserEntity> voters;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		movieId = 3L;
+		voters = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			voters.add(userRepository.save(new UserEntity(null, "Voter " + i, "voter" + i + "-" + System.nanoTime() + "@gmail.com", "123456")));
+		}
+		Mockito.when(userService.authenticated()).thenAnswer(invocation -> voter.get());
+		service.reconcileScores();
+	}
+
+	@Test
+	public void saveScoreShouldKeepMovieScoreEqualToItsVotesWhenVotesFlushAndReconcileRunConcurrently() throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(9);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean voting = new AtomicBoolean(true);
+
+		// every voter votes three times: one new vote, then two changes
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+			List<Future<?>> saves = new ArrayList<>();
+			for (int i = 0; i < voters.size(); i++) {
+				UserEntity user = voters.get(i);
+				double first = 1.0 + i % 5;
+				saves.add(executor.submit(() -> {
+					start.await();
+					voter.set(user);
+					try {
+						service.saveScore(new ScoreDTO(movieId, first));
+						service.saveScore(new ScoreDTO(movieId, 5.0));
+						service.saveScore(new ScoreDTO(movieId, first / 2));
+					}
+					finally {
+						voter.remove();
+					}
+					return null;
+				}));
+			}
+			Future<?> maintenance = executor.submit(() -> {
+				while (voting.get()) {
+					votes.flush();
+					service.reconcileScores();
+				}
+				return null;
+			});
+			start.countDown();
+			for (Future<?> save : saves) {
+				save.get();
+			}
+			voting.set(false);
+			maintenance.get();
+			votes.flush();
+		});
+		executor.shutdown();
+
+		Map<String, Object> stored = jdbcTemplate.queryForMap("SELECT score, count FROM tb_movie WHERE id = ?", movieId);
+		Map<String, Object> actual = jdbcTemplate.queryForMap(
+				"SELECT AVG(score_value) AS score, COUNT(*) AS count FROM tb_score WHERE movie_id = ?", movieId);
+		Assertions.assertEquals(40L, ((Number) actual.get("count")).longValue());
+		Assertions.assertEquals(40L, ((Number) stored.get("count")).longValue());
+		Assertions.assertEquals(((Number) actual.get("score")).doubleValue(), ((Number) stored.get("score")).doubleValue(), 0.000001);
+		Assertions.assertFalse(movieRepository.searchDriftedScores().contains(movieId));
+	}
+}
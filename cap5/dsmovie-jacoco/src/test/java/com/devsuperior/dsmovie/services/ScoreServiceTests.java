@@ -7,6 +7,7 @@ import com.devsuperior.dsmovie.entities.ScoreEntity;
 import com.devsuperior.dsmovie.entities.UserEntity;
 import com.devsuperior.dsmovie.repositories.MovieRepository;
 import com.devsuperior.dsmovie.repositories.ScoreRepository;
+import com.devsuperior.dsmovie.repositories.VoteEventRepository;
 import com.devsuperior.dsmovie.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dsmovie.tests.ScoreFactory;
 import org.junit.jupiter.api.Assertions;
@@ -21,6 +22,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(SpringExtension.class)
 public class ScoreServiceTests {
@@ -37,6 +39,15 @@ public class ScoreServiceTests {
 	@Mock
 	private MovieRepository movieRepository;
 
+	@Mock
+	private VoteEventRepository voteEventRepository;
+
+	@Mock
+	private VoteBuffer votes;
+
+	@Mock
+	private MovieRanking ranking;
+
 	private Long existingMovieId, nonExistingMovieId;
 	private ScoreEntity scoreEntity;
 	private Double scoreValue;
@@ -56,8 +67,9 @@ public class ScoreServiceTests {
 
 		Mockito.when(userService.authenticated()).thenReturn(new UserEntity());
 		Mockito.when(movieRepository.findById(existingMovieId)).thenReturn(Optional.of(movieEntity));
+		Mockito.when(scoreRepository.findById(any())).thenReturn(Optional.empty());
 		Mockito.when(scoreRepository.saveAndFlush(any())).thenReturn(scoreEntity);
-		Mockito.when(movieRepository.save(any())).thenReturn(movieEntity);
+		Mockito.when(votes.pending(any())).thenReturn(VoteBuffer.Delta.ZERO);
 
 		Mockito.when(movieRepository.findById(nonExistingMovieId)).thenReturn(Optional.empty());
 	}
@@ -71,6 +83,39 @@ public class ScoreServiceTests {
 		Assertions.assertEquals(result.getId(), existingMovieId);
 	}
 	
+	@Test
+	public void saveScoreShouldAddVoteToCountWhenFirstVoteOfUser() {
+
+		scoreService.saveScore(scoreDTO);
+
+		Mockito.verify(votes).add(eq(existingMovieId), any(), eq(new VoteBuffer.Delta(scoreValue, 1)));
+		Mockito.verify(voteEventRepository).save(any());
+	}
+	
+	@Test
+	public void saveScoreShouldAddOnlyDeltaWhenUserVotedBefore() {
+
+		scoreEntity.setValue(2.0);
+		Mockito.when(scoreRepository.findById(any())).thenReturn(Optional.of(scoreEntity));
+
+		scoreService.saveScore(scoreDTO);
+
+		Mockito.verify(votes).add(eq(existingMovieId), any(), eq(new VoteBuffer.Delta(scoreValue - 2.0, 0)));
+		Assertions.assertEquals(scoreValue, scoreEntity.getValue());
+	}
+	
+	@Test
+	public void saveScoreShouldReturnMovieWithPendingVotes() {
+
+		Mockito.when(votes.pending(existingMovieId)).thenReturn(new VoteBuffer.Delta(3.5, 1));
+
+		MovieDTO result = scoreService.saveScore(scoreDTO);
+
+		Assertions.assertEquals(2, result.getCount());
+		Assertions.assertEquals(4.0, result.getScore());
+		Mockito.verify(ranking).voted(existingMovieId, 4.0, 2);
+	}
+	
 	@Test
 	public void saveScoreShouldThrowResourceNotFoundExceptionWhenNonExistingMovieId() {
 
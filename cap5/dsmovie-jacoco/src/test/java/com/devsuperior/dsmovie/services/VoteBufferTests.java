@@ -0,0 +1,172 @@
+package com.devsuperior.dsmovie.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+
+@ExtendWith(SpringExtension.class)
+public class VoteBufferTests {
+
+	@InjectMocks
+	private VoteBuffer votes;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private Long movieId;
+	private Instant moment;
+	private DoubleAdder writtenSum;
+	private LongAdder writtenCount;
+	private LongAdder writtenRows;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		movieId = 1L;
+		moment = Instant.parse("2024-05-10T13:45:30Z");
+		writtenSum = new DoubleAdder();
+		writtenCount = new LongAdder();
+		writtenRows = new LongAdder();
+
+		// score buckets: every update finds its row
+		Mockito.when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+			int[] counts = new int[invocation.<List<Object[]>>getArgument(1).size()];
+			Arrays.fill(counts, 1);
+			return counts;
+		});
+		Mockito.when(jdbcTemplate.batchUpdate(startsWith("UPDATE tb_movie"), anyList())).thenAnswer(invocation -> {
+			List<Object[]> args = invocation.getArgument(1);
+			for (Object[] row : args) {
+				writtenSum.add((Double) row[0]);
+				writtenCount.add((Long) row[1]);
+				writtenRows.increment();
+			}
+			return new int[args.size()];
+		});
+	}
+
+	@Test
+	public void flushShouldWriteOneRowPerMovie() {
+
+		votes.add(movieId, moment, new VoteBuffer.Delta(4.0, 1));
+		votes.add(movieId, moment, new VoteBuffer.Delta(2.0, 1));
+		votes.add(movieId, moment, new VoteBuffer.Delta(-1.0, 0));
+		votes.add(2L, moment, new VoteBuffer.Delta(5.0, 1));
+
+		votes.flush();
+
+		Assertions.assertEquals(2, writtenRows.sum());
+		Assertions.assertEquals(10.0, writtenSum.sum());
+		Assertions.assertEquals(3, writtenCount.sum());
+		Assertions.assertEquals(VoteBuffer.Delta.ZERO, votes.pending(movieId));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void flushShouldAddVotesToMinuteHourAndDayBucketsAndInsertMissingOnes() {
+
+		Mockito.when(jdbcTemplate.batchUpdate(startsWith("UPDATE tb_score_bucket"), anyList())).thenAnswer(invocation -> {
+			List<Object[]> args = invocation.getArgument(1);
+			int[] counts = new int[args.size()];
+			for (int i = 0; i < args.size(); i++) {
+				counts[i] = "DAY".equals(args.get(i)[3]) ? 1 : 0;
+			}
+			return counts;
+		});
+		votes.add(movieId, moment, new VoteBuffer.Delta(4.0, 1));
+		votes.add(movieId, moment.plusSeconds(10), new VoteBuffer.Delta(2.0, 1));
+		votes.add(movieId, moment.plusSeconds(60), new VoteBuffer.Delta(-1.0, 0));
+
+		votes.flush();
+
+		ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(jdbcTemplate, Mockito.times(2)).batchUpdate(startsWith("INSERT INTO tb_score_bucket"), inserts.capture());
+		List<Object[]> minutes = inserts.getAllValues().get(0);
+		List<Object[]> hours = inserts.getAllValues().get(1);
+		Assertions.assertEquals(2, minutes.size());
+		Assertions.assertEquals(1, hours.size());
+		Assertions.assertArrayEquals(new Object[] { 5.0, 2L, movieId, "HOUR", LocalDateTime.parse("2024-05-10T13:00:00") }, hours.get(0));
+	}
+
+	@Test
+	public void flushShouldKeepDeltasWhenWriteFails() {
+
+		Mockito.when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(DataAccessResourceFailureException.class);
+		votes.add(movieId, moment, new VoteBuffer.Delta(4.0, 1));
+
+		votes.flush();
+
+		Assertions.assertEquals(new VoteBuffer.Delta(4.0, 1), votes.pending(movieId));
+	}
+
+	@Test
+	public void flushShouldNotLoseVotesOnOneMovieUnderConcurrentVotes() throws Exception {
+
+		int threads = 8;
+		int votesPerThread = 25_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean voting = new AtomicBoolean(true);
+
+		// 200k votes in under 20 seconds, flushed while they arrive
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+			List<Future<?>> voters = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				voters.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < votesPerThread; j++) {
+						votes.add(movieId, moment, new VoteBuffer.Delta(1.0, 1));
+					}
+					return null;
+				}));
+			}
+			Future<?> flusher = executor.submit(() -> {
+				while (voting.get()) {
+					votes.flush();
+					Thread.sleep(1);
+				}
+				return null;
+			});
+			start.countDown();
+			for (Future<?> voter : voters) {
+				voter.get();
+			}
+			voting.set(false);
+			flusher.get();
+			votes.flush();
+		});
+		executor.shutdown();
+
+		Assertions.assertEquals((long) threads * votesPerThread, writtenCount.sum());
+		Assertions.assertEquals((double) threads * votesPerThread, writtenSum.sum());
+	}
+}